@@ -0,0 +1,173 @@
+package framework.base;
+
+import framework.report.Log;
+import framework.report.Tracer;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.Sleeper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The AdaptiveWait class which is the FluentWait used by every wait helper. It polls fast at the
+ * beginning and backs off exponentially up to a cap, so waits that succeed quickly do not pay a fixed
+ * polling interval and long waits do not hammer the Appium server. Polling values are taken from
+ * {@link FrameworkConfig}, a wait with an explicit polling interval keeps it. The wait never goes beyond the
+ * {@link WaitBudget} open on the thread, and the last sleep is cut to the end of the wait.
+ *
+ * @author carlos.cadena
+ * @param <T> the input type
+ */
+public class AdaptiveWait<T> extends FluentWait<T> {
+
+	/** The number of waits done. */
+	private static final LongAdder waits = new LongAdder();
+
+	/** The number of polls done by all the waits. */
+	private static final LongAdder polls = new LongAdder();
+
+	/** The backoff sleeper of the wait. */
+	private final BackoffSleeper sleeper;
+
+	/** The timeout of the wait. */
+	private Duration timeout = DEFAULT_WAIT_DURATION;
+
+	/**
+	 * Instantiates a new adaptive wait.
+	 *
+	 * @author carlos.cadena
+	 * @param input the input
+	 */
+	public AdaptiveWait(T input) {
+		this(input, new BackoffSleeper());
+	}
+
+	/**
+	 * Instantiates a new adaptive wait.
+	 *
+	 * @author carlos.cadena
+	 * @param input the input
+	 * @param sleeper the sleeper
+	 */
+	private AdaptiveWait(T input, BackoffSleeper sleeper) {
+		super(input, Clock.systemDefaultZone(), sleeper);
+		this.sleeper = sleeper;
+	}
+
+	/**
+	 * Sets the timeout of the wait.
+	 *
+	 * @author carlos.cadena
+	 * @param timeout the timeout
+	 * @return the wait
+	 */
+	@Override
+	public FluentWait<T> withTimeout(Duration timeout) {
+		this.timeout = timeout;
+		return super.withTimeout(timeout);
+	}
+
+	/**
+	 * Sets a fixed polling interval, backoff is not applied.
+	 *
+	 * @author carlos.cadena
+	 * @param interval the interval
+	 * @return the wait
+	 */
+	@Override
+	public FluentWait<T> pollingEvery(Duration interval) {
+		sleeper.fixed = true;
+		return super.pollingEvery(interval);
+	}
+
+	/**
+	 * Waits until the condition is met, counting the polls it took. The timeout is bounded by the budget
+	 * open on the thread.
+	 *
+	 * @author carlos.cadena
+	 * @param <V> the return type
+	 * @param isTrue the condition
+	 * @return the condition result
+	 */
+	@Override
+	public <V> V until(Function<? super T, V> isTrue) {
+		int[] attempts = {0};
+		Duration bounded = WaitBudget.clamp(timeout);
+		super.withTimeout(bounded);
+		sleeper.end = System.nanoTime() + bounded.toNanos();
+		try (Tracer.Span span = Tracer.span("wait")) {
+			return super.until(input -> {
+				attempts[0]++;
+				return isTrue.apply(input);
+			});
+		} finally {
+			waits.increment();
+			polls.add(attempts[0]);
+			Log.logger.trace("Wait finished after " + attempts[0] + " polls");
+		}
+	}
+
+	/**
+	 * Gets the number of waits done.
+	 *
+	 * @author carlos.cadena
+	 * @return the waits
+	 */
+	public static long getWaits() {
+		return waits.sum();
+	}
+
+	/**
+	 * Gets the number of polls done by all the waits.
+	 *
+	 * @author carlos.cadena
+	 * @return the polls
+	 */
+	public static long getPolls() {
+		return polls.sum();
+	}
+
+	/**
+	 * The BackoffSleeper class which grows the sleep between polls of a single wait.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class BackoffSleeper implements Sleeper {
+
+		/** The max sleep. */
+		private final long max = FrameworkConfig.get().getPollingMax();
+
+		/** The multiplier of the sleep. */
+		private final double multiplier = FrameworkConfig.get().getPollingMultiplier();
+
+		/** The next sleep. */
+		private long next = FrameworkConfig.get().getPollingInitial();
+
+		/** The fixed interval flag. */
+		private boolean fixed;
+
+		/** The end of the wait in nanoseconds. */
+		private long end = Long.MAX_VALUE;
+
+		/**
+		 * Sleeps the next backoff interval, or the one given if the wait has a fixed interval, never beyond
+		 * the end of the wait.
+		 *
+		 * @author carlos.cadena
+		 * @param duration the duration
+		 * @throws InterruptedException the interrupted exception
+		 */
+		@Override
+		public void sleep(Duration duration) throws InterruptedException {
+			long interval = fixed ? duration.toMillis() : next;
+			if (!fixed) {
+				next = Math.min(max, (long) (next * multiplier));
+			}
+			long untilEnd = end - System.nanoTime();
+			Thread.sleep(untilEnd <= 0 ? 0 : Math.min(interval, TimeUnit.NANOSECONDS.toMillis(untilEnd) + 1));
+		}
+	}
+}
@@ -4,6 +4,8 @@ import com.google.common.base.Function;
 import framework.base.Utils.MovementsH;
 import framework.base.Utils.MovementsV;
 import framework.report.Log;
+import framework.report.Tracer;
+import framework.test.DeviceAllocator;
 import framework.test.TestUtils;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.TouchAction;
@@ -11,6 +13,7 @@ import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.nativekey.AndroidKey;
 import io.appium.java_client.appmanagement.ApplicationState;
 import io.appium.java_client.ios.IOSDriver;
+import io.appium.java_client.remote.SupportsRotation;
 import io.appium.java_client.touch.TapOptions;
 import io.appium.java_client.touch.WaitOptions;
 import io.appium.java_client.touch.offset.PointOption;
@@ -21,7 +24,6 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.remote.Augmenter;
 import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.remote.RemoteWebElement;
-import org.openqa.selenium.support.ui.FluentWait;
 
 import java.io.File;
 import java.io.IOException;
@@ -49,7 +51,7 @@ public class AppiumDriverFacade {
 	public static ThreadLocal<AppiumDriver> appiumDriver = new ThreadLocal<>();
 
 	/** The Constant pageTimeOut. */
-	public static final int pageTimeOut = Integer.valueOf(FrameworkProperties.getTimeout()).intValue();
+	public static final int pageTimeOut = FrameworkConfig.get().getTimeout();
 	
 	/** The is android execution. */
 	private static final ThreadLocal<Boolean> isAndroidExecution = new ThreadLocal<>();
@@ -60,6 +62,21 @@ public class AppiumDriverFacade {
 	/** The Constant APPIUM_US. */
 	private static final String APPIUM_US =  "https://us1.appium.testobject.com/wd/hub";
 
+	/** The duration in milliseconds of the swipes that reach or center an element, slow enough to not fling past it. */
+	private static final long POSITIONING_SWIPE_DURATION = 1000;
+
+	/** The session pool key of the driver in use by the thread. */
+	private static final ThreadLocal<String> sessionPoolKey = new ThreadLocal<>();
+
+	/** The snapshot mode flag of the thread. */
+	private static final ThreadLocal<Boolean> snapshotMode = new ThreadLocal<>();
+
+	/** The page source snapshot of the thread, null until the first query after being invalidated. */
+	private static final ThreadLocal<PageSourceSnapshot> snapshot = new ThreadLocal<>();
+
+	/** The web context flag of the thread, set when the driver is switched to a web view. */
+	private static final ThreadLocal<Boolean> webContext = new ThreadLocal<>();
+
 	// region Definition Methods
 	
     /**
@@ -80,6 +97,40 @@ public class AppiumDriverFacade {
     	appiumDriver.set(driver);
     }
 
+	/**
+	 * Gives back the driver of the thread to the session pool, if it was not created through the pool
+	 * the session is quit.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void releaseDriver() {
+		if (sessionPoolKey.get() != null && DriverSessionPool.isEnabled()) {
+			DriverSessionPool.release(appiumDriver.get());
+		} else if (appiumDriver.get() != null) {
+			DriverSessionPool.retire(appiumDriver.get());
+		}
+		sessionPoolKey.remove();
+		appiumDriver.remove();
+		webContext.remove();
+		stopSnapshot();
+	}
+
+	/**
+	 * Quits the driver of the thread without giving it back to the session pool, for sessions that failed
+	 * so the next test, or the retry, gets another one.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void retireDriver() {
+		if (appiumDriver.get() != null) {
+			DriverSessionPool.retire(appiumDriver.get());
+		}
+		sessionPoolKey.remove();
+		appiumDriver.remove();
+		webContext.remove();
+		stopSnapshot();
+	}
+
 	
 	/**
 	 * Facade method that initializes the driver instantiating an AndroidDriver or
@@ -140,24 +191,126 @@ public class AppiumDriverFacade {
 		URL url;
 		MutableCapabilities capabilities = new DesiredCapabilities();
 		browser = browser != null ? TestUtils.toTitle(browser) : null;
-		if (FrameworkProperties.getLocal().equalsIgnoreCase("true")) {
+		sessionPoolKey.remove();
+		webContext.remove();
+		stopSnapshot();
+		if (FrameworkConfig.get().isLocal()) {
 			url = localDriverInitialization(capabilities, browser, version, os, appActivity);
 		} else {
 			url = remoteDriverInitialization(capabilities, name, browser, version, os);
 		}
+		String requestKey = null;
+		boolean prewarm = DriverSessionPool.isPrewarmEnabled() && browser == null && deviceName.equalsIgnoreCase("Dynamic")
+				&& !FrameworkConfig.get().isLocal();
+		if ((DriverSessionPool.isEnabled() || prewarm) && browser == null) {
+			requestKey = DriverSessionPool.buildKey(deviceName, platformVersion, url, capabilities);
+			AppiumDriver pooledDriver = DriverSessionPool.acquire(requestKey);
+			if (pooledDriver != null) {
+				appiumDriver.set(pooledDriver);
+				sessionPoolKey.set(DriverSessionPool.getKey(pooledDriver));
+				isAndroidExecution.set(FrameworkConfig.get().isAndroid());
+				if (prewarm) {
+					prewarmNextSession(requestKey, name, deviceName, platformVersion);
+				}
+				return;
+			}
+		}
 		deviceDriverInitialization(capabilities, deviceName, platformVersion);
-		switch (FrameworkProperties.getPlatformName().toUpperCase()) {
-		case "ANDROID":
-			androidDriverInitialization(capabilities, url);
-			break;
-		case "IOS":
-			iosDriverInitialization(capabilities, url);
-			break;
-		default:
-			throw new IllegalArgumentException(
-					String.format("The selected driver %s is not supported", FrameworkProperties.getPlatformName()));
+		String sessionKey = requestKey == null ? null : DriverSessionPool.buildKey(deviceName, platformVersion, url, capabilities);
+		String leasedDevice = getLeasedDevice(capabilities, deviceName);
+		try {
+			switch (FrameworkConfig.get().getPlatform()) {
+			case ANDROID:
+				androidDriverInitialization(capabilities, url);
+				break;
+			case IOS:
+				iosDriverInitialization(capabilities, url);
+				break;
+			default:
+				throw new IllegalArgumentException(
+						String.format("The selected driver %s is not supported", FrameworkProperties.getPlatformName()));
+			}
+		} catch (RuntimeException e) {
+			DeviceAllocator.release(leasedDevice);
+			throw e;
+		}
+		DeviceAllocator.attach(leasedDevice, FrameworkConfig.get().isWeb() ? WebDriverFacade.getDriver() : appiumDriver.get());
+		if (sessionKey != null && appiumDriver.get() != null) {
+			DriverSessionPool.register(sessionKey, appiumDriver.get());
+			sessionPoolKey.set(sessionKey);
+		}
+		if (prewarm) {
+			prewarmNextSession(requestKey, name, deviceName, platformVersion);
 		}
 	}
+
+	/**
+	 * Opens on background, with the same capabilities used for the current test, the session that
+	 * will be handed out to the next test. The test name of the session will be the one of the
+	 * test that triggered its creation.
+	 *
+	 * @author carlos.cadena
+	 * @param key the session pool key requested
+	 * @param name the name
+	 * @param deviceName the device name
+	 * @param platformVersion the platform version
+	 */
+	private static void prewarmNextSession(String key, String name, String deviceName, String platformVersion) {
+		DriverSessionPool.prewarm(key, () -> {
+			FrameworkConfig config = FrameworkConfig.get();
+			String leasedDevice = null;
+			if (isLeasedDevice(deviceName)) {
+				leasedDevice = DeviceAllocator.tryLease(config.isHuawei(), config.isHuaweiHms());
+				if (leasedDevice == null) {
+					Log.logger.debug("No device is free, the session is not pre-warmed");
+					return null;
+				}
+			}
+			try {
+				MutableCapabilities capabilities = new DesiredCapabilities();
+				URL url = remoteDriverInitialization(capabilities, name, null, null, null);
+				if (leasedDevice != null) {
+					capabilities.setCapability("deviceName", leasedDevice);
+				}
+				deviceDriverInitialization(capabilities, deviceName, platformVersion);
+				String sessionKey = DriverSessionPool.buildKey(deviceName, platformVersion, url, capabilities);
+				AppiumDriver driver = config.isAndroid() ? newAndroidDriver(capabilities, url) : newIOSDriver(capabilities, url);
+				DeviceAllocator.attach(leasedDevice, driver);
+				DriverSessionPool.register(sessionKey, driver);
+				return driver;
+			} catch (Exception e) {
+				DeviceAllocator.release(leasedDevice);
+				throw e;
+			}
+		});
+	}
+
+	/**
+	 * Gets the device leased by {@link #deviceDriverInitialization} for the session, which must be attached
+	 * to the session once created or released if it could not be created.
+	 *
+	 * @author carlos.cadena
+	 * @param capabilities the capabilities
+	 * @param deviceName the device name requested
+	 * @return the device id, null if no device was leased
+	 */
+	private static String getLeasedDevice(MutableCapabilities capabilities, String deviceName) {
+		return isLeasedDevice(deviceName) ? (String) capabilities.getCapability("deviceName") : null;
+	}
+
+	/**
+	 * Checks if the device of the session is leased from the {@link DeviceAllocator}, that is, a dynamic
+	 * android device of the farm.
+	 *
+	 * @author carlos.cadena
+	 * @param deviceName the device name requested
+	 * @return true, if the device is leased
+	 */
+	private static boolean isLeasedDevice(String deviceName) {
+		FrameworkConfig config = FrameworkConfig.get();
+		return !config.isLocal() && config.isAndroid() && deviceName.equalsIgnoreCase("Dynamic")
+				&& !System.getProperties().containsKey("allDevices");
+	}
 	
 	/**
 	 * Local driver initialization.
@@ -202,7 +355,8 @@ public class AppiumDriverFacade {
 		}
 		capabilities.setCapability("testobject_api_key",
 				FrameworkProperties.getTestObjectId(FrameworkProperties.getApp()));
-		capabilities.setCapability("testobject_session_creation_timeout", "100000");
+		capabilities.setCapability("testobject_session_creation_timeout",
+				String.valueOf(FrameworkConfig.get().getSessionCreationTimeout() * 1000));
 		if (FrameworkProperties.getPlatformName().equalsIgnoreCase("iOS")){
 			capabilities.setCapability("appiumVersion", "1.15.1");
 		}
@@ -243,7 +397,7 @@ public class AppiumDriverFacade {
 	}
 		
 	/**
-	 * Device driver initialization.
+	 * Device driver initialization, a dynamic android device is leased unless one was already leased and set.
 	 *
 	 * @param capabilities the capabilities
 	 * @param deviceName the device name
@@ -252,8 +406,9 @@ public class AppiumDriverFacade {
 	 * @throws URISyntaxException the URI syntax exception
 	 */
 	public static void deviceDriverInitialization(MutableCapabilities capabilities, String deviceName, String platformVersion) throws IOException, URISyntaxException{
-		if (FrameworkProperties.getLocal().equalsIgnoreCase("False") && FrameworkProperties.getPlatformName().equalsIgnoreCase("ANDROID") && deviceName.equalsIgnoreCase("Dynamic") && !System.getProperties().containsKey("allDevices")) {
-			capabilities.setCapability("deviceName", TestUtils.geAvailableAndroidDeviceFromSauceLabs(Boolean.parseBoolean(FrameworkProperties.getHuawei()), Boolean.parseBoolean(FrameworkProperties.getHuaweiHms())));
+		FrameworkConfig config = FrameworkConfig.get();
+		if (isLeasedDevice(deviceName) && capabilities.getCapability("deviceName") == null) {
+			capabilities.setCapability("deviceName", TestUtils.geAvailableAndroidDeviceFromSauceLabs(config.isHuawei(), config.isHuaweiHms()));
 		}
 		if (!deviceName.equalsIgnoreCase("Dynamic")) {
 			capabilities.setCapability("deviceName", deviceName);
@@ -262,11 +417,11 @@ public class AppiumDriverFacade {
 			capabilities.setCapability("platformVersion", platformVersion);
 		}
 		if (deviceName.equalsIgnoreCase("Dynamic")
-				&& FrameworkProperties.getPrivateOnly().equalsIgnoreCase("true")) {
+				&& config.isPrivateOnly()) {
 			capabilities.setCapability("privateDevicesOnly", "true");
 		}
 		if (deviceName.equalsIgnoreCase("Dynamic")
-				&& FrameworkProperties.getPhoneOnly().equalsIgnoreCase("true")) {
+				&& config.isPhoneOnly()) {
 			capabilities.setCapability("phoneOnly", "true");
 		}
 	}
@@ -279,6 +434,19 @@ public class AppiumDriverFacade {
 	 * @param url the url
 	 */
 	public static void iosDriverInitialization(MutableCapabilities capabilities, URL url) {
+		appiumDriver.set(newIOSDriver(capabilities, url));
+		isAndroidExecution.set(false);
+	}
+
+	/**
+	 * Creates a new IOS Mobile driver without binding it to the current thread.
+	 *
+	 * @author carlos.cadena
+	 * @param capabilities the capabilities
+	 * @param url the url
+	 * @return the IOS driver
+	 */
+	private static IOSDriver newIOSDriver(MutableCapabilities capabilities, URL url) {
 		capabilities.setCapability("newCommandTimeout", 120);
 		capabilities.setCapability("launchTimeout", "300000");
 		capabilities.setCapability("platformName", "iOS");
@@ -287,8 +455,10 @@ public class AppiumDriverFacade {
 		capabilities.setCapability("simpleIsVisibleCheck", true);
 		//capabilities.setCapability("noReset", false);
 		capabilities.setCapability("bundleId", FrameworkProperties.getPackage());
-		appiumDriver.set(new IOSDriver(url, capabilities));
-		isAndroidExecution.set(false);
+		try (Tracer.Span span = Tracer.span("session")) {
+			return SessionAdmission.admit(url, () -> PerformanceUtils.time(PerformanceUtils.SESSION_CREATION,
+					() -> CommandMetrics.isEnabled() ? new IOSDriver(new TimedCommandExecutor(url), capabilities) : new IOSDriver(url, capabilities)));
+		}
 	}
 
 	/**
@@ -309,6 +479,16 @@ public class AppiumDriverFacade {
 		return !isAndroidExecution.get().booleanValue();
 	}
 
+	/**
+	 * Checks if the driver of the thread has been switched to a web context.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is web context
+	 */
+	public static boolean isWebContext() {
+		return Boolean.TRUE.equals(webContext.get());
+	}
+
 	/**
 	 * Initialize the Android Mobile driver.
 	 *
@@ -317,6 +497,38 @@ public class AppiumDriverFacade {
 	 * @param url the url
 	 */
 	public static void androidDriverInitialization(MutableCapabilities capabilities, URL url) {
+		if (FrameworkConfig.get().isWeb()) {
+			setAndroidCapabilities(capabilities);
+			WebDriverFacade.createDriverForMobileWeb(url, capabilities);
+		} else {
+			appiumDriver.set(newAndroidDriver(capabilities, url));
+		}
+		isAndroidExecution.set(true);
+	}
+
+	/**
+	 * Creates a new Android Mobile driver without binding it to the current thread.
+	 *
+	 * @author carlos.cadena
+	 * @param capabilities the capabilities
+	 * @param url the url
+	 * @return the android driver
+	 */
+	private static AndroidDriver newAndroidDriver(MutableCapabilities capabilities, URL url) {
+		setAndroidCapabilities(capabilities);
+		try (Tracer.Span span = Tracer.span("session")) {
+			return SessionAdmission.admit(url, () -> PerformanceUtils.time(PerformanceUtils.SESSION_CREATION,
+					() -> CommandMetrics.isEnabled() ? new AndroidDriver(new TimedCommandExecutor(url), capabilities) : new AndroidDriver(url, capabilities)));
+		}
+	}
+
+	/**
+	 * Sets the capabilities common to every Android Mobile driver.
+	 *
+	 * @author carlos.cadena
+	 * @param capabilities the capabilities
+	 */
+	private static void setAndroidCapabilities(MutableCapabilities capabilities) {
 		capabilities.setCapability("platformName", "Android");
 		capabilities.setCapability("newCommandTimeout", 120);
 		capabilities.setCapability("autoGrantPermissions", true);
@@ -325,12 +537,6 @@ public class AppiumDriverFacade {
 		capabilities.setCapability("appWaitActivity", "*");
 		capabilities.setCapability("autoDismissAlerts", true);
 		capabilities.setCapability("adbExecTimeout", 100000);
-		if (FrameworkProperties.getWeb().equalsIgnoreCase("True")) {
-			WebDriverFacade.createDriverForMobileWeb(url, capabilities);
-		} else {
-			appiumDriver.set(new AndroidDriver(url, capabilities));
-		}
-		isAndroidExecution.set(true);
 	}
 
 	/**
@@ -338,11 +544,107 @@ public class AppiumDriverFacade {
 	 * @return A point
 	 */
 	public static Dimension getScreenSize() {
-		return AppiumDriverFacade.appiumDriver.get().manage().window().getSize();
+		return SessionMetadata.of(appiumDriver.get()).getWindowSize(appiumDriver.get());
 	}
 
 	// endregion
 
+	//region Snapshot Methods
+
+	/**
+	 * Starts the snapshot mode, presence, visibility, text and attribute queries by locator are answered
+	 * from a single page source of the app until a mutating action (tap, write, swipe...) is done.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void startSnapshot() {
+		snapshotMode.set(true);
+		snapshot.remove();
+	}
+
+	/**
+	 * Stops the snapshot mode, queries go back to the device.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void stopSnapshot() {
+		snapshotMode.remove();
+		snapshot.remove();
+	}
+
+	/**
+	 * Discards the current snapshot, next query will take a new page source.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void invalidateSnapshot() {
+		snapshot.remove();
+	}
+
+	/**
+	 * Checks if a locator query should be answered from the snapshot.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @return true, if is snapshot query
+	 */
+	private static boolean isSnapshotQuery(By locator) {
+		return snapshotMode.get() != null && PageSourceSnapshot.isSupported(locator, isAndroidExecution());
+	}
+
+	/**
+	 * Waits until the query on the snapshot returns a value, a new page source is taken on each round the
+	 * query does not succeed.
+	 *
+	 * @author carlos.cadena
+	 * @param <T> the generic type
+	 * @param query the query
+	 * @param timeOut the time out
+	 * @return the query result, or null if timeout is reached
+	 */
+	private static <T> T waitOnSnapshot(Function<PageSourceSnapshot, T> query, int timeOut) {
+		try {
+			return Utils.newWait(appiumDriver.get(), timeOut)
+					.ignoring(WebDriverException.class)
+					.until((Function<AppiumDriver, T>) driver -> {
+						if (snapshot.get() == null) {
+							snapshot.set(PageSourceSnapshot.capture(driver, isAndroidExecution()));
+						}
+						T result = query.apply(snapshot.get());
+						if (result == null || Boolean.FALSE.equals(result)) {
+							snapshot.remove();
+						}
+						return result;
+					});
+		} catch (TimeoutException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Waits until the query on a page source returns a value, using the snapshot of the thread when
+	 * snapshot mode is on or a page source that is discarded afterwards otherwise.
+	 *
+	 * @author carlos.cadena
+	 * @param <T> the generic type
+	 * @param query the query
+	 * @param timeOut the time out
+	 * @return the query result, or null if timeout is reached
+	 */
+	private static <T> T waitOnPageSource(Function<PageSourceSnapshot, T> query, int timeOut) {
+		if (snapshotMode.get() != null) {
+			return waitOnSnapshot(query, timeOut);
+		}
+		try {
+			snapshot.remove();
+			return waitOnSnapshot(query, timeOut);
+		} finally {
+			snapshot.remove();
+		}
+	}
+
+	//endregion
+
 	//region Wait Methods
 	
 	/**
@@ -501,11 +803,10 @@ public class AppiumDriverFacade {
 	 * @return true if element is present or false otherwise
 	 */
 	public static boolean isApplicationReady(int timeOut) {
-		Map<String, Object> mapSession = appiumDriver.get().getSessionDetails();
-		String platformAndVersion = mapSession.get("platformName") + " " + mapSession.get("platformVersion").toString();
+		String platformAndVersion = SessionMetadata.of(appiumDriver.get()).getPlatformAndVersion();
 		if (!platformAndVersion.equalsIgnoreCase("Android 10")) {
 			try {
-				return new FluentWait<WebDriver>(appiumDriver.get()).withTimeout(Duration.ofSeconds(timeOut))
+				return Utils.newWait(appiumDriver.get(), timeOut)
 						.ignoring(RuntimeException.class).ignoring(IOException.class)
 						.until((Function<WebDriver, Boolean>) arg -> {
 							ApplicationState state = AppiumDriverFacade.appiumDriver.get()
@@ -613,6 +914,9 @@ public class AppiumDriverFacade {
 	 * @return boolean
 	 */
 	public static boolean isElementVisible(By locator, int timeOut) {
+		if (isSnapshotQuery(locator)) {
+			return waitOnSnapshot(current -> current.isVisible(locator), timeOut) != null;
+		}
 		return isAndroidExecution() ? Utils.isElementVisible(appiumDriver.get(), locator, timeOut)
 				: Utils.isAttributePresentOnElement(appiumDriver.get(), locator, "visible", "true", false, timeOut);
 	}
@@ -626,6 +930,9 @@ public class AppiumDriverFacade {
 	 * @return boolean
 	 */
 	public static boolean isElementNotVisible(By locator, int timeOut) {
+		if (isSnapshotQuery(locator)) {
+			return waitOnSnapshot(current -> !current.isVisible(locator), timeOut) != null;
+		}
 		return isAndroidExecution() ? Utils.isElementNotVisible(appiumDriver.get(), locator, timeOut)
 				: !Utils.isAttributePresentOnElement(appiumDriver.get(), locator, "visible", "true", false, timeOut);
 	}
@@ -757,15 +1064,13 @@ public class AppiumDriverFacade {
 	 * @return the web element
 	 */
 	public static WebElement findFirstVisibleElement(List<By> locators, int timeout) {
-		Optional<By> result = locators.stream().filter(locator -> AppiumDriverFacade.isElementVisible(locator, timeout))
-				.findFirst();
-		if (result.isPresent()) {
-			Log.logger.debug("visible locator found -> " + result.get().toString());
-			return AppiumDriverFacade.findElement(result.get());
+		WebElement result = Utils.findFirstMatchingElement(appiumDriver.get(), locators, AppiumDriverFacade::isDisplayed, timeout);
+		if (result != null) {
+			return result;
 		} else {
 			throw new NoSuchElementException("No visible element was found with the locators provided, check..");
 		}
-		}
+	}
 	
 	/**
 	 * Find first visible element specifying timeout.
@@ -777,16 +1082,25 @@ public class AppiumDriverFacade {
 	 * @return the web element
 	 */
 	public static WebElement findFirstVisibleElement(WebElement container, List<By> locators, int timeout) {
-		Optional<By> result = locators.stream().filter(locator -> AppiumDriverFacade.isElementVisible(container, locator, timeout))
-				.findFirst();
-		if (result.isPresent()) {
-			Log.logger.debug("visible locator found -> " + result.get().toString());
-			return AppiumDriverFacade.findElement(container, result.get(), true);
+		WebElement result = Utils.findFirstMatchingElement(container, locators, AppiumDriverFacade::isDisplayed, timeout);
+		if (result != null) {
+			return result;
 		} else {
 			throw new NoSuchElementException("No visible element was found inside the container with the locators provided, check..");
 		}
 	}
 
+	/**
+	 * Checks without waiting if a mobile element is displayed, iOS uses the visible attribute.
+	 *
+	 * @author carlos.cadena
+	 * @param element the element
+	 * @return true, if is displayed
+	 */
+	private static boolean isDisplayed(WebElement element) {
+		return isAndroidExecution() ? element.isDisplayed() : "true".equals(element.getAttribute("visible"));
+	}
+
 	/**
 	 * Find first visible element.
 	 *
@@ -1060,10 +1374,12 @@ public class AppiumDriverFacade {
 	 * @return {@link WebElement} a Mobile Element
 	 */
 	public static WebElement getElementByText(List<WebElement> elements, String elementText, int timeOut) {
-		for (WebElement element : elements) {
-			if (isElementVisible(element, timeOut)
-					&& element.getText().contains(elementText)) {
-				return element;
+		try (WaitBudget budget = WaitBudget.start(timeOut)) {
+			for (WebElement element : elements) {
+				if (isElementVisible(element, timeOut)
+						&& element.getText().contains(elementText)) {
+					return element;
+				}
 			}
 		}
 		throw new IllegalArgumentException(
@@ -1092,11 +1408,13 @@ public class AppiumDriverFacade {
 	 * @return the element index
 	 */
 	public static int getElementIndex(List<WebElement> elements, String elementText, int timeOut) {
-		Utils.waitForAllElementsVisibility(appiumDriver.get(), elements, timeOut);
-		for (WebElement element : elements) {
-			if (isElementVisible(element, timeOut)
-					&& element.getText().contains(elementText)) {
-				return elements.indexOf(element);
+		try (WaitBudget budget = WaitBudget.start(timeOut)) {
+			Utils.waitForAllElementsVisibility(appiumDriver.get(), elements, timeOut);
+			List<String> texts = Utils.getElementsText(appiumDriver.get(), elements);
+			for (int i = 0; i < texts.size(); i++) {
+				if (texts.get(i) != null && texts.get(i).contains(elementText)) {
+					return i;
+				}
 			}
 		}
 		throw new IllegalArgumentException(
@@ -1181,6 +1499,43 @@ public class AppiumDriverFacade {
 	public static String getText(WebElement container, By locator) {
 		return AppiumDriverFacade.findElement(container, locator, true).getText().trim();
 	}
+
+	/**
+	 * Gets the text of a mobile element by locator, from the snapshot when snapshot mode is on.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the element locator
+	 * @return the text
+	 */
+	public static String getText(By locator) {
+		if (isSnapshotQuery(locator)) {
+			String text = waitOnSnapshot(current -> current.getText(locator), pageTimeOut);
+			if (text == null) {
+				throw new NoSuchElementException("Element not found on page source snapshot -> " + locator);
+			}
+			return text;
+		}
+		return AppiumDriverFacade.findElement(locator, pageTimeOut, true).getText().trim();
+	}
+
+	/**
+	 * Gets an attribute of a mobile element by locator, from the snapshot when snapshot mode is on and the
+	 * attribute is part of the page source.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the element locator
+	 * @param attribute the attribute
+	 * @return the attribute value
+	 */
+	public static String getAttribute(By locator, String attribute) {
+		if (isSnapshotQuery(locator)) {
+			String value = waitOnSnapshot(current -> current.getAttribute(locator, attribute), pageTimeOut);
+			if (value != null) {
+				return value;
+			}
+		}
+		return AppiumDriverFacade.findElement(locator, pageTimeOut, false).getAttribute(attribute);
+	}
 	
 	/**
 	 * This method is used to return the texts of the elements.
@@ -1192,11 +1547,7 @@ public class AppiumDriverFacade {
 	 */
 	public static List<String> getElementsText(List<WebElement> elements, int timeOut) {
 		Utils.waitForAllElementsVisibility(appiumDriver.get(), elements);
-		List<String> Texts = new ArrayList<>();
-		for (WebElement element : elements) {
-			Texts.add(element.getText());
-		}
-		return Texts;
+		return Utils.getElementsText(appiumDriver.get(), elements);
 	}
 
 	/**
@@ -1210,6 +1561,63 @@ public class AppiumDriverFacade {
 		return getElementsText(elements, pageTimeOut);
 	}
 
+	/**
+	 * This method is used to return the texts of all the elements found by a locator. On native
+	 * context they are read from a single page source, on web context with a single script.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @return A {@link List} of String
+	 */
+	public static List<String> getElementsText(By locator) {
+		if (!isWebContext() && PageSourceSnapshot.isSupported(locator, isAndroidExecution())) {
+			List<String> texts = waitOnPageSource(current -> {
+				List<String> found = current.getTexts(locator);
+				return found.isEmpty() ? null : found;
+			}, pageTimeOut);
+			if (texts == null) {
+				throw new NoSuchElementException("The element was not present on the page -> " + locator);
+			}
+			return texts;
+		}
+		return Utils.getElementsText(appiumDriver.get(), findElements(locator));
+	}
+
+	/**
+	 * This method is used to return an attribute of the elements.
+	 *
+	 * @author carlos.cadena
+	 * @param elements the elements
+	 * @param attribute the attribute
+	 * @return A {@link List} of String
+	 */
+	public static List<String> getElementsAttribute(List<WebElement> elements, String attribute) {
+		return Utils.getElementsAttribute(appiumDriver.get(), elements, attribute);
+	}
+
+	/**
+	 * This method is used to return an attribute of all the elements found by a locator. On native
+	 * context they are read from a single page source, on web context with a single script.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @param attribute the attribute
+	 * @return A {@link List} of String
+	 */
+	public static List<String> getElementsAttribute(By locator, String attribute) {
+		if (!isWebContext() && PageSourceSnapshot.isSupported(locator, isAndroidExecution())) {
+			List<String> values = waitOnPageSource(current -> {
+				List<String> found = current.getAttributes(locator, attribute);
+				return found.isEmpty() ? null : found;
+			}, pageTimeOut);
+			if (values == null) {
+				throw new NoSuchElementException("The element was not present on the page -> " + locator);
+			}
+			return values;
+		}
+		return Utils.getElementsAttribute(appiumDriver.get(), findElements(locator), attribute);
+	}
+
 	/**
 	 * This method is used to returns the axis value of a mobile element on the
 	 * page.
@@ -1251,13 +1659,7 @@ public class AppiumDriverFacade {
 	 * @return the elements count
 	 */
 	public static int getElementsCount(List<WebElement> elements, String elementText, int timeOut) {
-		Utils.waitForAllElementsVisibility(appiumDriver.get(), elements);
-		List<WebElement> selectedElements = new ArrayList<>();
-		for (WebElement e : elements) {
-			if (e.getText().equals(elementText))
-				selectedElements.add(e);
-		}
-		return selectedElements.size();
+		return (int) getElementsText(elements, timeOut).stream().filter(elementText::equals).count();
 	}
 
 	/**
@@ -1318,6 +1720,7 @@ public class AppiumDriverFacade {
 	 * @param timeOut the time out
 	 */
 	public static void write(WebElement element, String text, int timeOut) {
+		invalidateSnapshot();
 		try {
 			element.sendKeys(text);
 		} catch (StaleElementReferenceException | NoSuchElementException | InvalidElementStateException e) {
@@ -1371,6 +1774,7 @@ public class AppiumDriverFacade {
 	 * @param timeOut the time out
 	 */
 	public static void clean(WebElement element, int timeOut) {
+		invalidateSnapshot();
 		try {
 			element.clear();
 		} catch (StaleElementReferenceException | NoSuchElementException | ElementNotInteractableException e) {
@@ -1436,6 +1840,7 @@ public class AppiumDriverFacade {
 	 * @param timeOut the time out
 	 */
 	public static void tap(WebElement element, int timeOut) {
+		invalidateSnapshot();
 		try {
 			element.click();
 		} catch (StaleElementReferenceException | NoSuchElementException e) {
@@ -1463,6 +1868,7 @@ public class AppiumDriverFacade {
 	 * @param timeOut the time out
 	 */
 	public static void doubleTap(WebElement element, int millisecondsBetweenTaps, int timeOut) {
+		invalidateSnapshot();
 		TouchAction action = new TouchAction<>(appiumDriver.get());
 		TapOptions options = TapOptions.tapOptions().withPosition(PointOption.point(AppiumDriverFacade.getElementCenterPoint(element)));
 		action = new TouchAction<>(appiumDriver.get()).waitAction(WaitOptions.waitOptions(Duration.ofMillis(millisecondsBetweenTaps))).tap(options).tap(options);
@@ -1493,6 +1899,7 @@ public class AppiumDriverFacade {
 	 * @param element the element
 	 */
 	public static void tapOnCenterOfElement(WebElement element) {
+		invalidateSnapshot();
 		Point center = element.getCenter();
 		new TouchAction<>(appiumDriver.get()).tap(PointOption.point(center.getX(), center.getY()));
 	}
@@ -1504,6 +1911,7 @@ public class AppiumDriverFacade {
 	 * @param element the element
 	 */
 	public static void tapOnCornerOfElement(WebElement element) {
+		invalidateSnapshot();
 		Point corner = element.getLocation();
 		new TouchAction<>(appiumDriver.get()).tap(PointOption.point(corner.getX(), corner.getY()));
 	}
@@ -1516,6 +1924,7 @@ public class AppiumDriverFacade {
 	 * @param y the y
 	 */
 	public static void tapOnCoordinates(int x, int y) {
+		invalidateSnapshot();
 		new TouchAction<>(appiumDriver.get()).tap(PointOption.point(x, y)).perform();
 	}
 
@@ -1564,6 +1973,7 @@ public class AppiumDriverFacade {
 	 * @param locator the element locator
 	 */
 	public static void tap(WebElement container, By locator) {
+		invalidateSnapshot();
 		AppiumDriverFacade.findElement(container, locator, pageTimeOut, true).click();
 	}
 
@@ -1591,6 +2001,7 @@ public class AppiumDriverFacade {
 	 *
 	 */
 	public static void tapAndroidBackButton() {
+		invalidateSnapshot();
 		WebDriverUtils.tapAndroidBackButton(appiumDriver.get());
 	}
 
@@ -1601,6 +2012,7 @@ public class AppiumDriverFacade {
 	 *
 	 */
 	public static void tapAndroidHomeButton() {
+		invalidateSnapshot();
 		WebDriverUtils.tapAndroidHomeButton(appiumDriver.get());
 	}
 
@@ -1611,6 +2023,7 @@ public class AppiumDriverFacade {
 	 *
 	 */
 	public static void tapAndroidEnterButton() {
+		invalidateSnapshot();
 		WebDriverUtils.tapAndroidEnterButton(appiumDriver.get());
 	}
 
@@ -1626,7 +2039,7 @@ public class AppiumDriverFacade {
 	 * @return true, if is element present
 	 */
 	public static boolean isElementPresent(By locator) {
-		return Utils.isElementPresent(appiumDriver.get(), locator, pageTimeOut);
+		return isElementPresent(locator, pageTimeOut);
 	}
 	
 	/**
@@ -1663,6 +2076,9 @@ public class AppiumDriverFacade {
 	 * @return true, if is element present
 	 */
 	public static boolean isElementPresent(By locator, int timeout) {
+		if (isSnapshotQuery(locator)) {
+			return waitOnSnapshot(current -> current.isPresent(locator), timeout) != null;
+		}
 		return Utils.isElementPresent(appiumDriver.get(), locator, timeout);
 	}
 
@@ -1865,10 +2281,9 @@ public class AppiumDriverFacade {
 	 * @return true, if successful
 	 */
 	public static boolean validateApplicationState(ApplicationState expectedState, int timeOut) {
-		Map<String, Object> mapSession = appiumDriver.get().getSessionDetails();
-		String platformAndVersion = mapSession.get("platformName") + " " + mapSession.get("platformVersion").toString();
+		String platformAndVersion = SessionMetadata.of(appiumDriver.get()).getPlatformAndVersion();
 		try {
-			return new FluentWait<WebDriver>(appiumDriver.get()).withTimeout(Duration.ofSeconds(timeOut)).pollingEvery(Duration.ofSeconds(1))
+			return Utils.newWait(appiumDriver.get(), timeOut).pollingEvery(Duration.ofSeconds(1))
 					.ignoring(RuntimeException.class).ignoring(IOException.class)
 					.until((Function<WebDriver, Boolean>) arg -> {
 						ApplicationState state = AppiumDriverFacade.appiumDriver.get()
@@ -1890,6 +2305,7 @@ public class AppiumDriverFacade {
 	 * @author carlos.cadena
 	 */
 	public static void sendCurrentApplicationToTheBackground(){
+		invalidateSnapshot();
 		appiumDriver.get().runAppInBackground(Duration.ofSeconds(-1));
 	}
 
@@ -1900,6 +2316,7 @@ public class AppiumDriverFacade {
 	 * @param appPackage the app package
 	 */
 	public static void activateApplication(String appPackage){
+		invalidateSnapshot();
 		AppiumDriverFacade.appiumDriver.get().activateApp(appPackage);
 	}
 
@@ -1910,6 +2327,7 @@ public class AppiumDriverFacade {
 	 * @param appBundleID the app bundle ID
 	 */
 	public static void terminateApplicationIos(String appBundleID){
+		invalidateSnapshot();
 		Map<String, Object> params = new HashMap<>();
 		params.put("bundleId", appBundleID);
 		appiumDriver.get().executeScript("mobile: terminateApp", params);
@@ -1921,6 +2339,7 @@ public class AppiumDriverFacade {
 	 * @author carlos.cadena
 	 */
 	public static void closeApplication(){
+		invalidateSnapshot();
 		AppiumDriverFacade.appiumDriver.get().closeApp();
 	}
 
@@ -1939,10 +2358,37 @@ public class AppiumDriverFacade {
 	 * @param duration the duration
 	 */
 	public static void swipe(Integer xStart, Integer yStart, Integer xEnd, Integer yEnd, long duration) {
-		new TouchAction<>(isAndroidExecution() ? (AndroidDriver) appiumDriver.get() : (IOSDriver) appiumDriver.get())
-				.press(PointOption.point(xStart, yStart))
-				.waitAction(WaitOptions.waitOptions(Duration.ofMillis(duration))).moveTo(PointOption.point(xEnd, yEnd))
-				.release().perform();
+		invalidateSnapshot();
+		Gestures.swipe(appiumDriver.get(), xStart, yStart, xEnd, yEnd, Duration.ofMillis(duration), 1);
+	}
+
+	/**
+	 * Swipe at the velocity configured on the swipe.velocity property. The swipes done to reach or center
+	 * an element keep the duration of {@link #POSITIONING_SWIPE_DURATION} instead.
+	 *
+	 * @author carlos.cadena
+	 * @param xStart   the x start
+	 * @param yStart   the y start
+	 * @param xEnd     the x end
+	 * @param yEnd     the y end
+	 */
+	public static void swipe(Integer xStart, Integer yStart, Integer xEnd, Integer yEnd) {
+		repeatSwipe(xStart, yStart, xEnd, yEnd, 1);
+	}
+
+	/**
+	 * Swipe several times at the velocity configured, all the swipes are sent to the device at once.
+	 *
+	 * @author carlos.cadena
+	 * @param xStart   the x start
+	 * @param yStart   the y start
+	 * @param xEnd     the x end
+	 * @param yEnd     the y end
+	 * @param times    the number of swipes
+	 */
+	public static void repeatSwipe(Integer xStart, Integer yStart, Integer xEnd, Integer yEnd, int times) {
+		invalidateSnapshot();
+		Gestures.swipe(appiumDriver.get(), xStart, yStart, xEnd, yEnd, times);
 	}
 
 	/**
@@ -1958,13 +2404,17 @@ public class AppiumDriverFacade {
 	public static boolean vSwipeToElement(WebElement element, MovementsV movement, int maxSwipes)
 			throws IllegalArgumentException {
 		Tuple<Point,Point> startAndEnd = getStartAndEndPositionForVerticalSwipe(movement);
-		for (int i = 0; i < maxSwipes; i++) {
-			if (!AppiumDriverFacade.isElementVisibleNoWait(element))
-				swipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x / 2, startAndEnd.v2().y, 1000);
-			else {			
-				centerElementOnScreen(element);
-				return true;
+		try (WaitBudget budget = startSwipeSearch(maxSwipes, 0)) {
+			int i = 0;
+			for (; i < maxSwipes && !budget.isExpired(); i++) {
+				if (!AppiumDriverFacade.isElementVisibleNoWait(element))
+					swipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x / 2, startAndEnd.v2().y, POSITIONING_SWIPE_DURATION);
+				else {
+					centerElementOnScreen(element);
+					return true;
+				}
 			}
+			logSwipeSearchEnd(element, i, maxSwipes);
 		}
 		return false;
 	}
@@ -1981,18 +2431,109 @@ public class AppiumDriverFacade {
 	 */
 	public static boolean vSwipeToElement(By element, MovementsV movement, int maxSwipes)
 			throws IllegalArgumentException {
+		if (FrameworkConfig.get().isScrollNative() && scrollToElementNative(element, maxSwipes)) {
+			centerElementOnScreen(AppiumDriverFacade.findElement(element));
+			return true;
+		}
 		Tuple<Point,Point> startAndEnd = getStartAndEndPositionForVerticalSwipe(movement);
-		for (int i = 0; i < maxSwipes; i++) {
-			if (!AppiumDriverFacade.isElementVisible(element,2))
-				swipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x / 2, startAndEnd.v2().y, 1000);
-			else {			
-				centerElementOnScreen(AppiumDriverFacade.findElement(element));
-				return true;
+		try (WaitBudget budget = startSwipeSearch(maxSwipes, 2)) {
+			int i = 0;
+			for (; i < maxSwipes && !budget.isExpired(); i++) {
+				if (!AppiumDriverFacade.isElementVisible(element,2))
+					swipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x / 2, startAndEnd.v2().y, POSITIONING_SWIPE_DURATION);
+				else {
+					Log.logger.debug("Scroll strategy 'swipe' reached '" + element + "' after " + i + " swipes");
+					centerElementOnScreen(AppiumDriverFacade.findElement(element));
+					return true;
+				}
 			}
+			logSwipeSearchEnd(element, i, maxSwipes);
 		}
 		return false;
 	}
 
+	/**
+	 * Scrolls until an element is visible with the scroll of the platform (mobile: scroll), Android
+	 * scrolls by locator strategy and selector and iOS by name or predicate.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @param maxSwipes the max swipes
+	 * @return true, if the element is visible after scrolling
+	 */
+	private static boolean scrollToElementNative(By locator, int maxSwipes) {
+		Map<String, Object> scrollObject = getNativeScrollParameters(locator, maxSwipes);
+		if (scrollObject == null) {
+			Log.logger.debug("Scroll strategy 'mobile: scroll' not available for '" + locator + "'");
+			return false;
+		}
+		invalidateSnapshot();
+		try {
+			appiumDriver.get().executeScript("mobile: scroll", scrollObject);
+			boolean visible = AppiumDriverFacade.isElementVisible(locator, 2);
+			Log.logger.debug("Scroll strategy 'mobile: scroll' " + (visible ? "reached" : "did not reach") + " '"
+					+ locator + "' with " + scrollObject);
+			return visible;
+		} catch (WebDriverException e) {
+			Log.logger.debug("Scroll strategy 'mobile: scroll' failed for '" + locator + "' -> " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Gets the mobile: scroll parameters for a locator.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @param maxSwipes the max swipes
+	 * @return the parameters, or null if the locator can not be used by the scroll of the platform
+	 */
+	private static Map<String, Object> getNativeScrollParameters(By locator, int maxSwipes) {
+		String strategy = Utils.getLocatorStrategy(locator);
+		String value = Utils.getLocatorValue(locator);
+		if (strategy == null) {
+			return null;
+		}
+		Map<String, Object> scrollObject = new HashMap<>();
+		if (isAndroidExecution()) {
+			switch (strategy) {
+			case "id":
+				scrollObject.put("strategy", "id");
+				break;
+			case "accessibilityId":
+			case "AccessibilityId":
+				scrollObject.put("strategy", "accessibility id");
+				break;
+			case "className":
+				scrollObject.put("strategy", "class name");
+				break;
+			case "androidUIAutomator":
+				scrollObject.put("strategy", "-android uiautomator");
+				break;
+			default:
+				return null;
+			}
+			scrollObject.put("selector", value);
+			scrollObject.put("maxSwipes", maxSwipes);
+		} else {
+			switch (strategy) {
+			case "id":
+			case "accessibilityId":
+			case "AccessibilityId":
+			case "name":
+				scrollObject.put("name", value);
+				break;
+			case "iOSNsPredicate":
+			case "iOSNsPredicateString":
+				scrollObject.put("predicateString", value);
+				break;
+			default:
+				return null;
+			}
+		}
+		return scrollObject;
+	}
+
 	/**
 	 * Vertical swipe to element inside a container.
 	 *
@@ -2024,7 +2565,7 @@ public class AppiumDriverFacade {
 			if(y > deviceScreenY) y = deviceScreenY;
 			if(y < 0) y = 0;
 			Log.logger.debug("Centro el elemento");
-			swipe(deviceScreen.width / 2, y, deviceScreen.width / 2, deviceScreenY / 2, 1000);
+			swipe(deviceScreen.width / 2, y, deviceScreen.width / 2, deviceScreenY / 2, POSITIONING_SWIPE_DURATION);
 		}
 	}
 	
@@ -2041,7 +2582,7 @@ public class AppiumDriverFacade {
 		int centerDeviceX = deviceScreen.width / 2;
 		int distanceToCenter = Math.abs(center.x - centerDeviceX);
 		if (distanceToCenter > 100) {
-			swipe(location.x, location.y, centerDeviceX/2, location.y, 1000);
+			swipe(location.x, location.y, centerDeviceX/2, location.y, POSITIONING_SWIPE_DURATION);
 		}
 	}
 	
@@ -2059,9 +2600,9 @@ public class AppiumDriverFacade {
 		xStartAndEnd = deviceScreen.width / 2;
 		if (movement == MovementsV.UP) {
 			yStart = 300;
-			yEnd = FrameworkProperties.getPlatformName().equalsIgnoreCase("Android") ? deviceScreen.height / 2 : deviceScreen.height - 100;
+			yEnd = FrameworkConfig.get().isAndroid() ? deviceScreen.height / 2 : deviceScreen.height - 100;
 		} else {
-			yStart = FrameworkProperties.getPlatformName().equalsIgnoreCase("Android") ? deviceScreen.height / 2 : deviceScreen.height - 100;
+			yStart = FrameworkConfig.get().isAndroid() ? deviceScreen.height / 2 : deviceScreen.height - 100;
 			yEnd = 300;
 		}
 		return new Tuple<Point,Point>(new Point(xStartAndEnd,yStart),new Point(xStartAndEnd,yEnd));
@@ -2104,9 +2645,7 @@ public class AppiumDriverFacade {
 	 */
 	public static void hSwipeFromElement(WebElement startElement, MovementsH movement, int maxSwipes) {
 		Tuple<Point,Point> startAndEnd = getStartAndEndPositionForHorizontalSwipe(startElement, movement);
-		for (int i = 0; i < maxSwipes; i++) {
-			swipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x, startAndEnd.v2().y, 1000);
-		}
+		repeatSwipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x, startAndEnd.v2().y, maxSwipes);
 	}
 
 	/**
@@ -2130,9 +2669,7 @@ public class AppiumDriverFacade {
 			xStart = 10;
 			xEnd = deviceScreen.width - 60;
 		}
-		for (int i = 0; i < maxSwipes; i++) {
-			swipe(xStart, startAndEnd.v1().y, xEnd, startAndEnd.v2().y, 1000);
-		}
+		repeatSwipe(xStart, startAndEnd.v1().y, xEnd, startAndEnd.v2().y, maxSwipes);
 	}
 
 	/**
@@ -2146,9 +2683,9 @@ public class AppiumDriverFacade {
 	 */
 	public static void hSwipeFromElement(WebElement startElement, MovementsH movement, int maxSwipes, long duration) {
 		Tuple<Point,Point> startAndEnd = getStartAndEndPositionForHorizontalSwipe(startElement, movement);
-		for (int i = 0; i < maxSwipes; i++) {
-			swipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x, startAndEnd.v2().y, duration);
-		}
+		invalidateSnapshot();
+		Gestures.swipe(appiumDriver.get(), startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x, startAndEnd.v2().y,
+				Duration.ofMillis(duration), maxSwipes);
 	}
 
 	/**
@@ -2166,7 +2703,7 @@ public class AppiumDriverFacade {
 		Tuple<Point,Point> startAndEnd = getStartAndEndPositionForHorizontalSwipe(startElement, movement);
 		for (int i = 0; i < maxSwipes; i++) {
 			if(!AppiumDriverFacade.isElementVisibleNoWait(wantedElement)){
-				swipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x, startAndEnd.v2().y, 1000);
+				swipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x, startAndEnd.v2().y, POSITIONING_SWIPE_DURATION);
 			}			
 			else {			
 				centerElementOnScreenRespectToX(wantedElement);
@@ -2189,18 +2726,53 @@ public class AppiumDriverFacade {
 	public static boolean hSwipeToElement(WebElement startElement, MovementsH movement, int maxSwipes,
 										By wantedElement) {
 		Tuple<Point,Point> startAndEnd = getStartAndEndPositionForHorizontalSwipe(startElement, movement);
-		for (int i = 0; i < maxSwipes; i++) {
-			if(!AppiumDriverFacade.isElementVisible(wantedElement, 5)){
-				swipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x, startAndEnd.v2().y, 1000);
-			}			
-			else {
-				centerElementOnScreenRespectToX(AppiumDriverFacade.findElement(wantedElement));
-				return true;
+		try (WaitBudget budget = startSwipeSearch(maxSwipes, 5)) {
+			int i = 0;
+			for (; i < maxSwipes && !budget.isExpired(); i++) {
+				if(!AppiumDriverFacade.isElementVisible(wantedElement, 5)){
+					swipe(startAndEnd.v1().x, startAndEnd.v1().y, startAndEnd.v2().x, startAndEnd.v2().y, POSITIONING_SWIPE_DURATION);
+				}
+				else {
+					centerElementOnScreenRespectToX(AppiumDriverFacade.findElement(wantedElement));
+					return true;
+				}
 			}
+			logSwipeSearchEnd(wantedElement, i, maxSwipes);
 		}
 		return false;
 	}
 
+	/**
+	 * Opens the wait budget of a search swiping to an element, sized for every swipe requested and the
+	 * visibility check done after each one, and never shorter than the page timeout.
+	 *
+	 * @author carlos.cadena
+	 * @param maxSwipes the max swipes
+	 * @param checkSeconds the timeout of the visibility check done after each swipe in seconds
+	 * @return the wait budget
+	 */
+	private static WaitBudget startSwipeSearch(int maxSwipes, int checkSeconds) {
+		long seconds = (long) maxSwipes * (checkSeconds + POSITIONING_SWIPE_DURATION / 1000 + 1);
+		return WaitBudget.start((int) Math.min(Integer.MAX_VALUE, Math.max(pageTimeOut, seconds)));
+	}
+
+	/**
+	 * Logs why a search swiping to an element ended without reaching it.
+	 *
+	 * @author carlos.cadena
+	 * @param element the element
+	 * @param swipes the swipes done
+	 * @param maxSwipes the max swipes
+	 */
+	private static void logSwipeSearchEnd(Object element, int swipes, int maxSwipes) {
+		if (swipes < maxSwipes) {
+			Log.logger.debug("Scroll strategy 'swipe' did not reach '" + element + "', the time budget ran out after "
+					+ swipes + " of " + maxSwipes + " swipes");
+		} else {
+			Log.logger.debug("Scroll strategy 'swipe' did not reach '" + element + "' after " + maxSwipes + " swipes");
+		}
+	}
+
 	/**
 	 * Scroll to element IOS script.
 	 *
@@ -2209,6 +2781,7 @@ public class AppiumDriverFacade {
 	 * @return true, if successful
 	 */
 	public static boolean scrollToElementIOSScript(WebElement element, MovementsV movement) {
+		invalidateSnapshot();
 		JavascriptExecutor js = (JavascriptExecutor) appiumDriver.get();
 		HashMap<String, String> scrollObject = new HashMap<String, String>();
 		scrollObject.put("direction", movement == MovementsV.DOWN ? "down" : "up");
@@ -2228,6 +2801,7 @@ public class AppiumDriverFacade {
 	 * @param keys the keys
 	 */
 	public static void pressKeyboardKeys(String keys) {
+		invalidateSnapshot();
 		WebDriverUtils.pressKeyboardKeys(appiumDriver.get(), keys);
 	}
 
@@ -2237,6 +2811,7 @@ public class AppiumDriverFacade {
 	 * @author carlos.cadena
 	 */
 	public static void hideKeyboard() {
+		invalidateSnapshot();
 		WebDriverUtils.hideKeyboard(appiumDriver.get());
 
 	}
@@ -2248,6 +2823,7 @@ public class AppiumDriverFacade {
 	 * @param key the key
 	 */
 	public static void pressKey(AndroidKey key) {
+		invalidateSnapshot();
 		WebDriverUtils.pressKey(appiumDriver.get(), key);
 	}
 
@@ -2265,7 +2841,16 @@ public class AppiumDriverFacade {
 	 * @return true, if successful
 	 */
 	public static boolean switchToContext(String contextName, int timeout) {
-		return WebDriverUtils.switchToContext(appiumDriver.get(), contextName, timeout);
+		if (!contextName.startsWith("NATIVE")) {
+			stopSnapshot();
+		}
+		invalidateSnapshot();
+		boolean switched = WebDriverUtils.switchToContext(appiumDriver.get(), contextName, timeout);
+		SessionMetadata.of(appiumDriver.get()).invalidate();
+		if (switched) {
+			webContext.set(!contextName.startsWith("NATIVE"));
+		}
+		return switched;
 	}
 
 	/**
@@ -2276,11 +2861,44 @@ public class AppiumDriverFacade {
 	 * @return true, if successful
 	 */
 	public static boolean switchToFirstWebContextFound(int timeout) {
-		return WebDriverUtils.switchToFirstWebContextFound(appiumDriver.get(), timeout);
+		stopSnapshot();
+		boolean switched = WebDriverUtils.switchToFirstWebContextFound(appiumDriver.get(), timeout);
+		SessionMetadata.of(appiumDriver.get()).invalidate();
+		if (switched) {
+			webContext.set(true);
+		}
+		return switched;
 	}
 	
 	//endregion
 
+	//region Orientation Methods
+
+	/**
+	 * Rotates the device, cached window size is discarded.
+	 *
+	 * @author carlos.cadena
+	 * @param orientation the orientation
+	 */
+	public static void rotate(ScreenOrientation orientation) {
+		invalidateSnapshot();
+		((SupportsRotation) appiumDriver.get()).rotate(orientation);
+		SessionMetadata.of(appiumDriver.get()).invalidate();
+	}
+
+	/**
+	 * Gets the contexts of the current session, they are requested on every call since web views can
+	 * appear at any time.
+	 *
+	 * @author carlos.cadena
+	 * @return the contexts
+	 */
+	public static Set<String> getContexts() {
+		return appiumDriver.get().getContextHandles();
+	}
+
+	//endregion
+
 	//region Toggle Methods
 
 	/**
@@ -0,0 +1,193 @@
+package framework.base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.Response;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * The CommandMetrics class which aggregates the time of the driver commands, by command and by command
+ * and locator, for the whole suite and for the test running on each thread. Element commands are
+ * attributed to the locator the element was found with.
+ *
+ * @author carlos.cadena
+ */
+public class CommandMetrics {
+
+	/** The max number of element ids remembered on each thread. */
+	private static final int MAX_ELEMENTS = 512;
+
+	/** The commands that find elements. */
+	private static final List<String> FIND_COMMANDS = Arrays.asList("findElement", "findElements",
+			"findChildElement", "findChildElements");
+
+	/** The keys of an element on a response, W3C and legacy. */
+	private static final List<String> ELEMENT_KEYS = Arrays.asList("element-6066-11e4-a52e-4f735466cecf", "ELEMENT");
+
+	/** The times of the suite by command and by command and locator. */
+	private static final Map<String, PerformanceUtils.Histogram> suite = new ConcurrentSkipListMap<>();
+
+	/** The times of the current test of each thread by command and by command and locator. */
+	private static final ThreadLocal<Map<String, PerformanceUtils.Histogram>> test = ThreadLocal.withInitial(HashMap::new);
+
+	/** The locators of the elements found on each thread by element id. */
+	private static final ThreadLocal<Map<String, String>> locators = ThreadLocal.withInitial(() ->
+			new LinkedHashMap<String, String>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+					return size() > MAX_ELEMENTS;
+				}
+			});
+
+	/**
+	 * Checks if driver commands are timed.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is enabled
+	 */
+	public static boolean isEnabled() {
+		return FrameworkConfig.get().isCommandMetrics();
+	}
+
+	/**
+	 * Records the time of a command.
+	 *
+	 * @author carlos.cadena
+	 * @param command the command
+	 * @param response the response, null if the command failed
+	 * @param nanos the time in nanoseconds
+	 */
+	public static void record(Command command, Response response, long nanos) {
+		String name = command.getName();
+		String locator = getLocator(command);
+		if (response != null && locator != null && FIND_COMMANDS.contains(name)) {
+			rememberElements(response.getValue(), locator);
+		}
+		long millis = nanos / 1_000_000;
+		add(name, millis);
+		if (locator != null) {
+			add(name + " [" + locator + "]", millis);
+		}
+	}
+
+	/**
+	 * Starts the metrics of a new test on the current thread.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void startTest() {
+		test.get().clear();
+		locators.get().clear();
+	}
+
+	/**
+	 * Gets the locators of the current test whose commands took more time in total, with their percentiles.
+	 *
+	 * @author carlos.cadena
+	 * @param limit the limit
+	 * @return the commands
+	 */
+	public static Collection<String> getSlowestForTest(int limit) {
+		return test.get().entrySet().stream()
+				.filter(entry -> entry.getKey().contains("["))
+				.sorted(Comparator.comparingDouble((Map.Entry<String, PerformanceUtils.Histogram> entry) ->
+						entry.getValue().getMean() * entry.getValue().getCount()).reversed())
+				.limit(limit)
+				.map(entry -> String.format("%s: p50 %d ms - p90 %d ms - max %d ms (%d)", entry.getKey(),
+						entry.getValue().getPercentile(50), entry.getValue().getPercentile(90), entry.getValue().getMax(),
+						entry.getValue().getCount()))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Gets the commands of the suite with the highest p90, with their percentiles.
+	 *
+	 * @author carlos.cadena
+	 * @param limit the limit
+	 * @return the commands
+	 */
+	public static Collection<String> getSlowestForSuite(int limit) {
+		return suite.entrySet().stream()
+				.sorted(Comparator.comparingLong((Map.Entry<String, PerformanceUtils.Histogram> entry) -> entry.getValue().getPercentile(90)).reversed())
+				.limit(limit)
+				.map(entry -> String.format("%s: p90 %d ms - max %d ms (%d)", entry.getKey(), entry.getValue().getPercentile(90),
+						entry.getValue().getMax(), entry.getValue().getCount()))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Exports the summary of every command as JSON.
+	 *
+	 * @author carlos.cadena
+	 * @param file the file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static void exportJson(File file) throws IOException {
+		Map<String, Map<String, Long>> summary = new LinkedHashMap<>();
+		suite.forEach((name, histogram) -> summary.put(name, histogram.getSummary()));
+		file.getParentFile().mkdirs();
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, summary);
+	}
+
+	/**
+	 * Adds a time to the suite and to the current test.
+	 *
+	 * @author carlos.cadena
+	 * @param key the key
+	 * @param millis the millis
+	 */
+	private static void add(String key, long millis) {
+		suite.computeIfAbsent(key, name -> new PerformanceUtils.Histogram()).record(millis);
+		test.get().computeIfAbsent(key, name -> new PerformanceUtils.Histogram()).record(millis);
+	}
+
+	/**
+	 * Gets the locator a command refers to, the one sent for find commands or the one the element was
+	 * found with for element commands.
+	 *
+	 * @author carlos.cadena
+	 * @param command the command
+	 * @return the locator, or null if the command has none
+	 */
+	private static String getLocator(Command command) {
+		Map<String, ?> parameters = command.getParameters();
+		if (parameters.containsKey("using") && parameters.containsKey("value")) {
+			return parameters.get("using") + ": " + parameters.get("value");
+		}
+		Object id = parameters.get("id");
+		return id == null ? null : locators.get().get(id.toString());
+	}
+
+	/**
+	 * Remembers the locator of the elements on the value of a find response.
+	 *
+	 * @author carlos.cadena
+	 * @param value the value
+	 * @param locator the locator
+	 */
+	private static void rememberElements(Object value, String locator) {
+		if (value instanceof Collection) {
+			((Collection<?>) value).forEach(element -> rememberElements(element, locator));
+		} else if (value instanceof Map) {
+			for (String key : ELEMENT_KEYS) {
+				Object id = ((Map<?, ?>) value).get(key);
+				if (id != null) {
+					locators.get().put(id.toString(), locator);
+					return;
+				}
+			}
+		}
+	}
+}
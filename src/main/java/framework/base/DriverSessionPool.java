@@ -0,0 +1,375 @@
+package framework.base;
+
+import framework.report.Log;
+import framework.test.DeviceAllocator;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.appmanagement.ApplicationState;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriverException;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The DriverSessionPool class which keeps the already started Appium sessions, keyed by platform,
+ * device and capabilities, so they can be handed out again to the following tests instead of
+ * creating a brand-new session for each one of them. It also holds the sessions that are being
+ * pre-warmed on background while the current test runs.
+ *
+ * @author carlos.cadena
+ */
+public class DriverSessionPool {
+
+	/** The device key value that matches sessions on any device or version. */
+	private static final String DYNAMIC = "Dynamic";
+
+	/** The capabilities that are not shared by the sessions of a key, since they depend on the test or the device. */
+	private static final List<String> UNSHARED_CAPABILITIES = Arrays.asList("testobject_test_name", "deviceName",
+			"platformVersion", "privateDevicesOnly", "phoneOnly");
+
+	/** The tests of the suite that have not asked for a session yet. */
+	private static final AtomicInteger pendingTests = new AtomicInteger(Integer.MAX_VALUE);
+
+	/** The keys of the sessions opened through the pool. */
+	private static final Map<AppiumDriver, String> sessionKeys = new ConcurrentHashMap<>();
+
+	/** The idle sessions by key. */
+	private static final Map<String, Deque<AppiumDriver>> idleSessions = new ConcurrentHashMap<>();
+
+	/** The sessions being pre-warmed by key. */
+	private static final Map<String, Queue<Future<AppiumDriver>>> warmingSessions = new ConcurrentHashMap<>();
+
+	/** The executor opening the pre-warmed sessions. */
+	private static final ExecutorService warmingExecutor = Executors.newFixedThreadPool(
+			FrameworkConfig.get().getParallel(), runnable -> {
+				Thread thread = new Thread(runnable, "session-prewarm");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	/**
+	 * Checks if the session pool is enabled.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is enabled
+	 */
+	public static boolean isEnabled() {
+		return FrameworkConfig.get().isSessionPool();
+	}
+
+	/**
+	 * Checks if the pre-warming of the session for the next test is enabled.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is prewarm enabled
+	 */
+	public static boolean isPrewarmEnabled() {
+		return FrameworkConfig.get().isSessionPrewarm();
+	}
+
+	/**
+	 * Sets the number of tests of the suite, so sessions are not pre-warmed once the remaining tests already
+	 * have one.
+	 *
+	 * @author carlos.cadena
+	 * @param tests the tests
+	 */
+	public static void expectTests(int tests) {
+		pendingTests.set(tests);
+	}
+
+	/**
+	 * Builds the key that identifies sessions that can be shared, test name is not taken into account. Once the
+	 * device capabilities are resolved the key holds the device and version of the session, before that the
+	 * ones requested, which may be Dynamic and then match sessions on any device or version.
+	 *
+	 * @author carlos.cadena
+	 * @param deviceName the device name requested
+	 * @param platformVersion the platform version requested
+	 * @param url the url
+	 * @param capabilities the capabilities
+	 * @return the key
+	 */
+	public static String buildKey(String deviceName, String platformVersion, URL url, Capabilities capabilities) {
+		Map<String, Object> sharedCapabilities = new TreeMap<>(capabilities.asMap());
+		UNSHARED_CAPABILITIES.forEach(sharedCapabilities::remove);
+		Object device = capabilities.getCapability("deviceName");
+		Object version = capabilities.getCapability("platformVersion");
+		return FrameworkProperties.getPlatformName().toUpperCase() + "|" + (device != null ? device : deviceName) + "|"
+				+ (version != null ? version : platformVersion) + "|" + url + "|" + sharedCapabilities;
+	}
+
+	/**
+	 * Checks if a session key matches the key requested, Dynamic device and version match any value.
+	 *
+	 * @author carlos.cadena
+	 * @param requested the key requested
+	 * @param key the key of the session
+	 * @return true, if it matches
+	 */
+	private static boolean matches(String requested, String key) {
+		String[] requestedParts = requested.split("\\|", 5);
+		String[] keyParts = key.split("\\|", 5);
+		for (int i = 0; i < requestedParts.length; i++) {
+			boolean dynamic = (i == 1 || i == 2) && DYNAMIC.equalsIgnoreCase(requestedParts[i]);
+			if (!dynamic && (i >= keyParts.length || !requestedParts[i].equals(keyParts[i]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Registers a session opened through the pool with its key, built once the device capabilities were resolved.
+	 *
+	 * @author carlos.cadena
+	 * @param key the key
+	 * @param driver the driver
+	 */
+	public static void register(String key, AppiumDriver driver) {
+		sessionKeys.put(driver, key);
+	}
+
+	/**
+	 * Gets the key of a session opened through the pool.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @return the key, null if the session was not opened through the pool
+	 */
+	public static String getKey(AppiumDriver driver) {
+		return driver == null ? null : sessionKeys.get(driver);
+	}
+
+	/**
+	 * Hands out an idle session matching the key requested, the app state is reset before returning it
+	 * and sessions failing the health check are retired. If there is no idle session, a pre-warmed one is
+	 * taken, waiting for it to be ready if its creation is still ongoing, up to the prewarm wait. A pre-warmed
+	 * session not ready on time is cancelled, and quit if it is created anyway. It is called once by each test
+	 * that needs a session.
+	 *
+	 * @author carlos.cadena
+	 * @param key the key requested, built before the device capabilities are resolved
+	 * @return the driver, or null if there is no healthy idle or pre-warmed session
+	 */
+	public static AppiumDriver acquire(String key) {
+		pendingTests.decrementAndGet();
+		AppiumDriver driver;
+		for (Map.Entry<String, Deque<AppiumDriver>> entry : idleSessions.entrySet()) {
+			if (!matches(key, entry.getKey())) {
+				continue;
+			}
+			while ((driver = entry.getValue().pollFirst()) != null) {
+				if (isHealthy(driver) && resetApplication(driver)) {
+					Log.logger.debug("Reusing session '" + driver.getSessionId() + "' from pool");
+					return driver;
+				}
+				retire(driver);
+			}
+		}
+		Queue<Future<AppiumDriver>> warming = warmingSessions.get(key);
+		Future<AppiumDriver> warmingSession;
+		long wait = FrameworkConfig.get().getSessionPrewarmWait();
+		while (warming != null && (warmingSession = warming.poll()) != null) {
+			try {
+				driver = warmingSession.get(wait, TimeUnit.SECONDS);
+				if (driver == null) {
+					continue;
+				}
+				if (isHealthy(driver)) {
+					Log.logger.debug("Using pre-warmed session '" + driver.getSessionId() + "'");
+					return driver;
+				}
+				retire(driver);
+			} catch (ExecutionException e) {
+				Log.logger.debug("Pre-warmed session could not be created -> " + e.getCause().getMessage());
+			} catch (TimeoutException e) {
+				Log.logger.debug("Pre-warmed session was not ready after " + wait + " seconds, a new one is created");
+				warmingSession.cancel(false);
+				return null;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Starts opening on background a session for a following test. Several sessions can be warming for the
+	 * same key, up to the parallel devices, but only while there are more tests still to start than idle and
+	 * pre-warmed sessions for the key.
+	 *
+	 * @author carlos.cadena
+	 * @param key the key
+	 * @param sessionFactory the session factory
+	 */
+	public static void prewarm(String key, Callable<AppiumDriver> sessionFactory) {
+		Queue<Future<AppiumDriver>> warming = warmingSessions.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>());
+		synchronized (warming) {
+			long idle = idleSessions.entrySet().stream().filter(entry -> matches(key, entry.getKey()))
+					.mapToLong(entry -> entry.getValue().size()).sum();
+			if (pendingTests.get() > idle + warming.size() && warming.size() < FrameworkConfig.get().getParallel()) {
+				WarmingSession warmingSession = new WarmingSession(sessionFactory);
+				warming.add(warmingSession);
+				warmingExecutor.execute(warmingSession);
+			}
+		}
+	}
+
+	/**
+	 * Gives back a session to the pool, if the pool is full, the session is not healthy or it was not opened
+	 * through the pool it is retired.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 */
+	public static void release(AppiumDriver driver) {
+		if (driver == null) {
+			return;
+		}
+		String key = sessionKeys.get(driver);
+		if (key == null) {
+			retire(driver);
+			return;
+		}
+		Deque<AppiumDriver> sessions = idleSessions.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+		if (sessions.size() < FrameworkConfig.get().getSessionPoolSize() && isHealthy(driver)) {
+			sessions.offerFirst(driver);
+		} else {
+			retire(driver);
+		}
+	}
+
+	/**
+	 * Checks that the session is still alive on the server.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @return true, if is healthy
+	 */
+	public static boolean isHealthy(AppiumDriver driver) {
+		try {
+			return driver.getSessionId() != null
+					&& driver.queryAppState(FrameworkProperties.getPackage()) != ApplicationState.NOT_INSTALLED;
+		} catch (WebDriverException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Terminates and activates again the app so next test starts on a clean state.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @return true, if successful
+	 */
+	private static boolean resetApplication(AppiumDriver driver) {
+		try {
+			driver.terminateApp(FrameworkProperties.getPackage());
+			driver.activateApp(FrameworkProperties.getPackage());
+			return true;
+		} catch (WebDriverException e) {
+			Log.logger.debug("App state could not be reset on session '" + driver.getSessionId() + "' -> " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Quits a session that should not be used anymore, releasing the device leased for it.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 */
+	public static void retire(AppiumDriver driver) {
+		sessionKeys.remove(driver);
+		SessionMetadata.remove(driver);
+		try {
+			driver.quit();
+		} catch (WebDriverException e) {
+			Log.logger.debug("Session was already closed -> " + e.getMessage());
+		} finally {
+			DeviceAllocator.release(driver);
+		}
+	}
+
+	/**
+	 * Quits all the idle and pre-warmed sessions, should be called when the suite ends.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void shutdown() {
+		idleSessions.values().forEach(sessions -> {
+			AppiumDriver driver;
+			while ((driver = sessions.pollFirst()) != null) {
+				retire(driver);
+			}
+		});
+		idleSessions.clear();
+		long wait = FrameworkConfig.get().getSessionCreationTimeout();
+		warmingSessions.values().forEach(warming -> {
+			Future<AppiumDriver> warmingSession;
+			while ((warmingSession = warming.poll()) != null) {
+				try {
+					AppiumDriver driver = warmingSession.get(wait, TimeUnit.SECONDS);
+					if (driver != null) {
+						retire(driver);
+					}
+				} catch (ExecutionException e) {
+					Log.logger.debug("Pre-warmed session was not created -> " + e.getCause().getMessage());
+				} catch (TimeoutException e) {
+					warmingSession.cancel(false);
+					Log.logger.debug("Pre-warmed session was not ready after " + wait + " seconds, it is abandoned");
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		warmingSessions.clear();
+	}
+
+	/**
+	 * The WarmingSession class which is a session being pre-warmed, if it is cancelled while being created
+	 * the session is quit once created so it does not hold the device.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class WarmingSession extends FutureTask<AppiumDriver> {
+
+		/**
+		 * Instantiates a new warming session.
+		 *
+		 * @author carlos.cadena
+		 * @param sessionFactory the session factory
+		 */
+		private WarmingSession(Callable<AppiumDriver> sessionFactory) {
+			super(sessionFactory);
+		}
+
+		@Override
+		protected void set(AppiumDriver driver) {
+			super.set(driver);
+			if (isCancelled() && driver != null) {
+				Log.logger.debug("Pre-warmed session '" + driver.getSessionId() + "' was created after being cancelled, it is quit");
+				retire(driver);
+			}
+		}
+	}
+}
@@ -0,0 +1,742 @@
+package framework.base;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * The FrameworkConfig class which is the typed snapshot of the configuration read through
+ * {@link FrameworkProperties}. Values are resolved and validated once, the first time the configuration
+ * is requested, and then read without locks, so hot paths do not look up and compare strings on every
+ * call. The app and its package are not part of the snapshot since tests can change them while running.
+ *
+ * @author carlos.cadena
+ */
+public final class FrameworkConfig {
+
+	/**
+	 * The mobile platforms supported.
+	 *
+	 * @author carlos.cadena
+	 */
+	public enum MobilePlatform {
+
+		/** The android. */
+		ANDROID,
+
+		/** The ios. */
+		IOS
+	}
+
+	/** The current configuration. */
+	private static volatile FrameworkConfig current;
+
+	/** The timeout in seconds. */
+	private final int timeout;
+
+	/** The retry times. */
+	private final int retryTimes;
+
+	/** The local flag. */
+	private final boolean local;
+
+	/** The web flag. */
+	private final boolean web;
+
+	/** The platform, null if the platform name is not a mobile one. */
+	private final MobilePlatform platform;
+
+	/** The platform name. */
+	private final String platformName;
+
+	/** The platform version. */
+	private final String platformVersion;
+
+	/** The device name. */
+	private final String deviceName;
+
+	/** The parallel devices. */
+	private final int parallel;
+
+	/** The phone only flag. */
+	private final boolean phoneOnly;
+
+	/** The private devices only flag. */
+	private final boolean privateOnly;
+
+	/** The huawei flag. */
+	private final boolean huawei;
+
+	/** The huawei hms flag. */
+	private final boolean huaweiHms;
+
+	/** The session pool flag. */
+	private final boolean sessionPool;
+
+	/** The session pool size. */
+	private final int sessionPoolSize;
+
+	/** The session prewarm flag. */
+	private final boolean sessionPrewarm;
+
+	/** The time the farm tries to create a session in seconds. */
+	private final int sessionCreationTimeout;
+
+	/** The time waited for a pre-warmed session in seconds, never longer than the session creation timeout. */
+	private final int sessionPrewarmWait;
+
+	/** The max session creations at the same time on each farm region. */
+	private final int sessionAdmissionLimit;
+
+	/** The attempts to create a session. */
+	private final int sessionAdmissionAttempts;
+
+	/** The base of the backoff between session attempts in milliseconds. */
+	private final int sessionAdmissionBackoff;
+
+	/** The consecutive session failures that open the circuit of a farm region. */
+	private final int sessionCircuitThreshold;
+
+	/** The time the circuit of a farm region stays open in seconds. */
+	private final int sessionCircuitOpenSeconds;
+
+	/** The initial polling interval of the waits in milliseconds. */
+	private final int pollingInitial;
+
+	/** The max polling interval of the waits in milliseconds. */
+	private final int pollingMax;
+
+	/** The multiplier of the polling interval of the waits. */
+	private final double pollingMultiplier;
+
+	/** The native scroll flag. */
+	private final boolean scrollNative;
+
+	/** The screenshot save flag. */
+	private final boolean screenshotSave;
+
+	/** The time to live of the device catalog in seconds. */
+	private final int deviceCatalogTtl;
+
+	/** The time waited for a device to be released in seconds. */
+	private final int deviceLeaseTimeout;
+
+	/** The velocity of the swipes in pixels per second. */
+	private final int swipeVelocity;
+
+	/** The max width of the screenshots, 0 to keep the original size. */
+	private final int screenshotMaxWidth;
+
+	/** The size of the log excerpts of the report in KB. */
+	private final int logExcerptKb;
+
+	/** The max size of the runner output of the report in KB. */
+	private final int logOutputKb;
+
+	/** The screenshot store flag. */
+	private final boolean screenshotStore;
+
+	/** The command metrics flag. */
+	private final boolean commandMetrics;
+
+	/** The base url, null if not configured. */
+	private final URL baseUrl;
+
+	/**
+	 * Instantiates a new framework config from the current properties.
+	 *
+	 * @author carlos.cadena
+	 */
+	private FrameworkConfig() {
+		timeout = toInt("timeout", FrameworkProperties.getTimeout(), 45);
+		retryTimes = toInt("retry.times", FrameworkProperties.getRetryTimes(), 0);
+		local = toBoolean("local", FrameworkProperties.getLocal());
+		web = toBoolean("web", FrameworkProperties.getWeb());
+		platformName = FrameworkProperties.getPlatformName();
+		platform = toPlatform(platformName, web);
+		platformVersion = FrameworkProperties.getPlatformVersion();
+		deviceName = FrameworkProperties.getDeviceName();
+		parallel = toInt("parallel.devices", FrameworkProperties.getParallel(), 1, 1);
+		phoneOnly = toBoolean("phone.only", FrameworkProperties.getPhoneOnly());
+		privateOnly = toBoolean("sauce.privateDevicesOnly", FrameworkProperties.getPrivateOnly());
+		huawei = toBoolean("huawei", FrameworkProperties.getHuawei());
+		huaweiHms = toBoolean("huawei.hms", FrameworkProperties.getHuaweiHms());
+		sessionPool = toBoolean("session.pool", FrameworkProperties.getSessionPool());
+		sessionPoolSize = toInt("session.pool.size", FrameworkProperties.getSessionPoolSize(), 2);
+		sessionPrewarm = toBoolean("session.prewarm", FrameworkProperties.getSessionPrewarm());
+		sessionCreationTimeout = toInt("session.creation.timeout.seconds", FrameworkProperties.getSessionCreationTimeout(), 100, 1);
+		sessionPrewarmWait = Math.min(toInt("session.prewarm.wait.seconds", FrameworkProperties.getSessionPrewarmWait(), 100, 0),
+				sessionCreationTimeout);
+		sessionAdmissionLimit = toInt("session.admission.limit", FrameworkProperties.getSessionAdmissionLimit(), 6, 1);
+		sessionAdmissionAttempts = toInt("session.admission.attempts", FrameworkProperties.getSessionAdmissionAttempts(), 2, 1);
+		sessionAdmissionBackoff = toInt("session.admission.backoff.ms", FrameworkProperties.getSessionAdmissionBackoff(), 5000, 0);
+		sessionCircuitThreshold = toInt("session.circuit.threshold", FrameworkProperties.getSessionCircuitThreshold(), 3, 1);
+		sessionCircuitOpenSeconds = toInt("session.circuit.open.seconds", FrameworkProperties.getSessionCircuitOpenSeconds(), 120, 0);
+		pollingInitial = toInt("polling.initial.ms", FrameworkProperties.getPollingInitial(), 50, 1);
+		pollingMax = toInt("polling.max.ms", FrameworkProperties.getPollingMax(), 1000, pollingInitial);
+		pollingMultiplier = toDouble("polling.multiplier", FrameworkProperties.getPollingMultiplier(), 2, 1);
+		scrollNative = toBoolean("scroll.native", FrameworkProperties.getScrollNative());
+		screenshotSave = toBoolean("screenshot.save", FrameworkProperties.getScreenshotSave());
+		deviceCatalogTtl = toInt("device.catalog.ttl.seconds", FrameworkProperties.getDeviceCatalogTtl(), 30, 0);
+		deviceLeaseTimeout = toInt("device.lease.timeout.seconds", FrameworkProperties.getDeviceLeaseTimeout(), 300, 0);
+		swipeVelocity = toInt("swipe.velocity", FrameworkProperties.getSwipeVelocity(), 2500, 1);
+		screenshotMaxWidth = toInt("screenshot.max.width", FrameworkProperties.getScreenshotMaxWidth(), 0, 0);
+		logExcerptKb = toInt("log.excerpt.kb", FrameworkProperties.getLogExcerptKb(), 32, 0);
+		logOutputKb = toInt("log.output.kb", FrameworkProperties.getLogOutputKb(), 4096, 1);
+		screenshotStore = toBoolean("screenshot.store", FrameworkProperties.getScreenshotStore());
+		commandMetrics = toBoolean("command.metrics", FrameworkProperties.getCommandMetrics());
+		baseUrl = toUrl("base.url", FrameworkProperties.getBaseUrl());
+	}
+
+	/**
+	 * Gets the configuration, it is built the first time.
+	 *
+	 * @author carlos.cadena
+	 * @return the framework config
+	 */
+	public static FrameworkConfig get() {
+		FrameworkConfig config = current;
+		if (config == null) {
+			synchronized (FrameworkConfig.class) {
+				config = current;
+				if (config == null) {
+					config = new FrameworkConfig();
+					current = config;
+				}
+			}
+		}
+		return config;
+	}
+
+	/**
+	 * Builds the configuration again from the current properties, for changes made before the suite starts.
+	 *
+	 * @author carlos.cadena
+	 * @return the framework config
+	 */
+	public static FrameworkConfig reload() {
+		FrameworkConfig config = new FrameworkConfig();
+		current = config;
+		return config;
+	}
+
+	/**
+	 * Gets the timeout in seconds.
+	 *
+	 * @author carlos.cadena
+	 * @return the timeout
+	 */
+	public int getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Gets the retry times.
+	 *
+	 * @author carlos.cadena
+	 * @return the retry times
+	 */
+	public int getRetryTimes() {
+		return retryTimes;
+	}
+
+	/**
+	 * Checks if is local.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is local
+	 */
+	public boolean isLocal() {
+		return local;
+	}
+
+	/**
+	 * Checks if is web.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is web
+	 */
+	public boolean isWeb() {
+		return web;
+	}
+
+	/**
+	 * Gets the platform.
+	 *
+	 * @author carlos.cadena
+	 * @return the platform, null if the platform name is not a mobile one
+	 */
+	public MobilePlatform getPlatform() {
+		return platform;
+	}
+
+	/**
+	 * Checks if is android.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is android
+	 */
+	public boolean isAndroid() {
+		return platform == MobilePlatform.ANDROID;
+	}
+
+	/**
+	 * Checks if is IOS.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is IOS
+	 */
+	public boolean isIOS() {
+		return platform == MobilePlatform.IOS;
+	}
+
+	/**
+	 * Gets the platform name.
+	 *
+	 * @author carlos.cadena
+	 * @return the platform name
+	 */
+	public String getPlatformName() {
+		return platformName;
+	}
+
+	/**
+	 * Gets the platform version.
+	 *
+	 * @author carlos.cadena
+	 * @return the platform version
+	 */
+	public String getPlatformVersion() {
+		return platformVersion;
+	}
+
+	/**
+	 * Gets the device name.
+	 *
+	 * @author carlos.cadena
+	 * @return the device name
+	 */
+	public String getDeviceName() {
+		return deviceName;
+	}
+
+	/**
+	 * Checks if the device is picked dynamically on the device farm.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is dynamic device
+	 */
+	public boolean isDynamicDevice() {
+		return "Dynamic".equalsIgnoreCase(deviceName);
+	}
+
+	/**
+	 * Gets the parallel devices.
+	 *
+	 * @author carlos.cadena
+	 * @return the parallel
+	 */
+	public int getParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Checks if only phones are used.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is phone only
+	 */
+	public boolean isPhoneOnly() {
+		return phoneOnly;
+	}
+
+	/**
+	 * Checks if only private devices are used.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is private only
+	 */
+	public boolean isPrivateOnly() {
+		return privateOnly;
+	}
+
+	/**
+	 * Checks if huawei devices are used.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is huawei
+	 */
+	public boolean isHuawei() {
+		return huawei;
+	}
+
+	/**
+	 * Checks if huawei devices with HMS are used.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is huawei hms
+	 */
+	public boolean isHuaweiHms() {
+		return huaweiHms;
+	}
+
+	/**
+	 * Checks if the session pool is enabled.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is session pool
+	 */
+	public boolean isSessionPool() {
+		return sessionPool;
+	}
+
+	/**
+	 * Gets the session pool size.
+	 *
+	 * @author carlos.cadena
+	 * @return the session pool size
+	 */
+	public int getSessionPoolSize() {
+		return sessionPoolSize;
+	}
+
+	/**
+	 * Checks if sessions are prewarmed.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is session prewarm
+	 */
+	public boolean isSessionPrewarm() {
+		return sessionPrewarm;
+	}
+
+	/**
+	 * Gets the time the farm tries to create a session in seconds.
+	 *
+	 * @author carlos.cadena
+	 * @return the session creation timeout
+	 */
+	public int getSessionCreationTimeout() {
+		return sessionCreationTimeout;
+	}
+
+	/**
+	 * Gets the time waited for a pre-warmed session in seconds.
+	 *
+	 * @author carlos.cadena
+	 * @return the session prewarm wait
+	 */
+	public int getSessionPrewarmWait() {
+		return sessionPrewarmWait;
+	}
+
+	/**
+	 * Gets the max session creations at the same time on each farm region.
+	 *
+	 * @author carlos.cadena
+	 * @return the session admission limit
+	 */
+	public int getSessionAdmissionLimit() {
+		return sessionAdmissionLimit;
+	}
+
+	/**
+	 * Gets the attempts to create a session.
+	 *
+	 * @author carlos.cadena
+	 * @return the session admission attempts
+	 */
+	public int getSessionAdmissionAttempts() {
+		return sessionAdmissionAttempts;
+	}
+
+	/**
+	 * Gets the base of the backoff between session attempts in milliseconds.
+	 *
+	 * @author carlos.cadena
+	 * @return the session admission backoff
+	 */
+	public int getSessionAdmissionBackoff() {
+		return sessionAdmissionBackoff;
+	}
+
+	/**
+	 * Gets the consecutive session failures that open the circuit of a farm region.
+	 *
+	 * @author carlos.cadena
+	 * @return the session circuit threshold
+	 */
+	public int getSessionCircuitThreshold() {
+		return sessionCircuitThreshold;
+	}
+
+	/**
+	 * Gets the time the circuit of a farm region stays open in seconds.
+	 *
+	 * @author carlos.cadena
+	 * @return the session circuit open seconds
+	 */
+	public int getSessionCircuitOpenSeconds() {
+		return sessionCircuitOpenSeconds;
+	}
+
+	/**
+	 * Gets the initial polling interval of the waits in milliseconds.
+	 *
+	 * @author carlos.cadena
+	 * @return the polling initial
+	 */
+	public int getPollingInitial() {
+		return pollingInitial;
+	}
+
+	/**
+	 * Gets the max polling interval of the waits in milliseconds.
+	 *
+	 * @author carlos.cadena
+	 * @return the polling max
+	 */
+	public int getPollingMax() {
+		return pollingMax;
+	}
+
+	/**
+	 * Gets the multiplier of the polling interval of the waits.
+	 *
+	 * @author carlos.cadena
+	 * @return the polling multiplier
+	 */
+	public double getPollingMultiplier() {
+		return pollingMultiplier;
+	}
+
+	/**
+	 * Checks if the native scroll is tried first.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is scroll native
+	 */
+	public boolean isScrollNative() {
+		return scrollNative;
+	}
+
+	/**
+	 * Checks if screenshots are saved on the screenshots folder.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is screenshot save
+	 */
+	public boolean isScreenshotSave() {
+		return screenshotSave;
+	}
+
+	/**
+	 * Gets the time to live of the device catalog in seconds.
+	 *
+	 * @author carlos.cadena
+	 * @return the device catalog ttl
+	 */
+	public int getDeviceCatalogTtl() {
+		return deviceCatalogTtl;
+	}
+
+	/**
+	 * Gets the time waited for a device to be released in seconds.
+	 *
+	 * @author carlos.cadena
+	 * @return the device lease timeout
+	 */
+	public int getDeviceLeaseTimeout() {
+		return deviceLeaseTimeout;
+	}
+
+	/**
+	 * Gets the velocity of the swipes in pixels per second.
+	 *
+	 * @author carlos.cadena
+	 * @return the swipe velocity
+	 */
+	public int getSwipeVelocity() {
+		return swipeVelocity;
+	}
+
+	/**
+	 * Gets the max width of the screenshots.
+	 *
+	 * @author carlos.cadena
+	 * @return the screenshot max width, 0 to keep the original size
+	 */
+	public int getScreenshotMaxWidth() {
+		return screenshotMaxWidth;
+	}
+
+	/**
+	 * Gets the size of the log excerpts of the report in KB.
+	 *
+	 * @author carlos.cadena
+	 * @return the log excerpt size
+	 */
+	public int getLogExcerptKb() {
+		return logExcerptKb;
+	}
+
+	/**
+	 * Gets the max size of the runner output of the report in KB.
+	 *
+	 * @author carlos.cadena
+	 * @return the log output size
+	 */
+	public int getLogOutputKb() {
+		return logOutputKb;
+	}
+
+	/**
+	 * Checks if screenshots are saved on the screenshot store instead of embedded in the report.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is screenshot store
+	 */
+	public boolean isScreenshotStore() {
+		return screenshotStore;
+	}
+
+	/**
+	 * Checks if driver commands are timed.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is command metrics
+	 */
+	public boolean isCommandMetrics() {
+		return commandMetrics;
+	}
+
+	/**
+	 * Gets the base url.
+	 *
+	 * @author carlos.cadena
+	 * @return the base url, null if not configured
+	 */
+	public URL getBaseUrl() {
+		return baseUrl;
+	}
+
+	/**
+	 * Converts a property value to boolean, a missing value is false.
+	 *
+	 * @author carlos.cadena
+	 * @param key the key
+	 * @param value the value
+	 * @return the boolean
+	 */
+	private static boolean toBoolean(String key, String value) {
+		if (value == null || value.trim().isEmpty() || value.trim().equalsIgnoreCase("false")) {
+			return false;
+		}
+		if (value.trim().equalsIgnoreCase("true")) {
+			return true;
+		}
+		throw new IllegalArgumentException(String.format("Valid values for '%s' are 'True' or 'False', found '%s'", key, value));
+	}
+
+	/**
+	 * Converts a property value to int.
+	 *
+	 * @author carlos.cadena
+	 * @param key the key
+	 * @param value the value
+	 * @param defaultValue the value used when the property is missing
+	 * @return the int
+	 */
+	private static int toInt(String key, String value, int defaultValue) {
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(String.format("The value of '%s' must be a number, found '%s'", key, value), e);
+		}
+	}
+
+	/**
+	 * Converts a property value to int, it must not be lower than a min value.
+	 *
+	 * @author carlos.cadena
+	 * @param key the key
+	 * @param value the value
+	 * @param defaultValue the value used when the property is missing
+	 * @param minValue the min value
+	 * @return the int
+	 */
+	private static int toInt(String key, String value, int defaultValue, int minValue) {
+		int number = toInt(key, value, defaultValue);
+		if (number < minValue) {
+			throw new IllegalArgumentException(String.format("The value of '%s' must be at least %d, found '%s'", key, minValue, value));
+		}
+		return number;
+	}
+
+	/**
+	 * Converts a property value to double, it must not be lower than a min value.
+	 *
+	 * @author carlos.cadena
+	 * @param key the key
+	 * @param value the value
+	 * @param defaultValue the value used when the property is missing
+	 * @param minValue the min value
+	 * @return the double
+	 */
+	private static double toDouble(String key, String value, double defaultValue, double minValue) {
+		double number = defaultValue;
+		if (value != null && !value.trim().isEmpty()) {
+			try {
+				number = Double.parseDouble(value.trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(String.format("The value of '%s' must be a number, found '%s'", key, value), e);
+			}
+		}
+		if (!(number >= minValue)) {
+			throw new IllegalArgumentException(String.format("The value of '%s' must be at least %s, found '%s'", key, minValue, value));
+		}
+		return number;
+	}
+
+	/**
+	 * Converts the platform name to a platform, it is mandatory for mobile executions.
+	 *
+	 * @author carlos.cadena
+	 * @param platformName the platform name
+	 * @param web the web flag
+	 * @return the platform
+	 */
+	private static MobilePlatform toPlatform(String platformName, boolean web) {
+		if ("Android".equalsIgnoreCase(platformName)) {
+			return MobilePlatform.ANDROID;
+		}
+		if ("iOS".equalsIgnoreCase(platformName)) {
+			return MobilePlatform.IOS;
+		}
+		if (web) {
+			return null;
+		}
+		throw new IllegalArgumentException("Valid values for platform name on config.properties are 'Android' or 'iOS'");
+	}
+
+	/**
+	 * Converts a property value to url.
+	 *
+	 * @author carlos.cadena
+	 * @param key the key
+	 * @param value the value
+	 * @return the url, null if the property is missing
+	 */
+	private static URL toUrl(String key, String value) {
+		if (value == null || value.trim().isEmpty()) {
+			return null;
+		}
+		try {
+			return new URL(value.trim());
+		} catch (MalformedURLException e) {
+			throw new IllegalArgumentException(String.format("The value of '%s' must be a url, found '%s'", key, value), e);
+		}
+	}
+}
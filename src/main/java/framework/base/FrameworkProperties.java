@@ -8,7 +8,8 @@ import java.io.InputStream;
 import java.util.Properties;
 
 /**
- * The Class FrameworkProperties.
+ * The Class FrameworkProperties, which returns the raw values of the properties. Code that runs on every
+ * test should read the typed values of {@link FrameworkConfig}, built once from these getters.
  */
 public class FrameworkProperties {
 
@@ -536,6 +537,407 @@ public class FrameworkProperties {
 		return System.getProperty("PARALLEL");
 	}
 
+	/**
+	 * Return SCHEDULE_BY_DURATION environment variable, and if null 'schedule.by.duration' property value is
+	 * returned telling if tests are run longest first according to their duration on previous runs.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getScheduleByDuration() {
+		if (System.getProperty("SCHEDULE_BY_DURATION") == null) {
+			return props.getProperty("schedule.by.duration", "False");
+		}
+		return System.getProperty("SCHEDULE_BY_DURATION");
+	}
+
+	//endregion
+
+	//region Session Pool Config
+
+	/**
+	 * Return SESSION_POOL environment variable, and if null 'session.pool' property value is
+	 * returned telling if started sessions should be kept and handed out again to the following tests.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSessionPool() {
+		if (System.getProperty("SESSION_POOL") == null) {
+			return props.getProperty("session.pool", "False");
+		}
+		return System.getProperty("SESSION_POOL");
+	}
+
+	/**
+	 * Return SESSION_POOL_SIZE environment variable, and if null 'session.pool.size' property value is
+	 * returned, meaning the max number of idle sessions kept for the same platform, device and capabilities.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSessionPoolSize() {
+		if (System.getProperty("SESSION_POOL_SIZE") == null) {
+			return props.getProperty("session.pool.size", "2");
+		}
+		return System.getProperty("SESSION_POOL_SIZE");
+	}
+
+	/**
+	 * Return SESSION_PREWARM environment variable, and if null 'session.prewarm' property value is
+	 * returned telling if the session for the next test should be opened while the current one runs.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSessionPrewarm() {
+		if (System.getProperty("SESSION_PREWARM") == null) {
+			return props.getProperty("session.prewarm", "False");
+		}
+		return System.getProperty("SESSION_PREWARM");
+	}
+
+	/**
+	 * Return SESSION_PREWARM_WAIT environment variable, and if null 'session.prewarm.wait.seconds' property value is
+	 * returned, meaning the seconds a test waits for the pre-warmed session before creating its own.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSessionPrewarmWait() {
+		if (System.getProperty("SESSION_PREWARM_WAIT") == null) {
+			return props.getProperty("session.prewarm.wait.seconds", "100");
+		}
+		return System.getProperty("SESSION_PREWARM_WAIT");
+	}
+
+	/**
+	 * Return SESSION_CREATION_TIMEOUT environment variable, and if null 'session.creation.timeout.seconds' property
+	 * value is returned, meaning the seconds the device farm tries to create a session.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSessionCreationTimeout() {
+		if (System.getProperty("SESSION_CREATION_TIMEOUT") == null) {
+			return props.getProperty("session.creation.timeout.seconds", "100");
+		}
+		return System.getProperty("SESSION_CREATION_TIMEOUT");
+	}
+
+	//endregion
+
+	//region Session Admission Config
+
+	/**
+	 * Return SESSION_ADMISSION_LIMIT environment variable, and if null 'session.admission.limit' property value is
+	 * returned, meaning the max sessions being created at the same time on each device farm region.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSessionAdmissionLimit() {
+		if (System.getProperty("SESSION_ADMISSION_LIMIT") == null) {
+			return props.getProperty("session.admission.limit", "6");
+		}
+		return System.getProperty("SESSION_ADMISSION_LIMIT");
+	}
+
+	/**
+	 * Return SESSION_ADMISSION_ATTEMPTS environment variable, and if null 'session.admission.attempts' property value is
+	 * returned, meaning the times the creation of a session is tried.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSessionAdmissionAttempts() {
+		if (System.getProperty("SESSION_ADMISSION_ATTEMPTS") == null) {
+			return props.getProperty("session.admission.attempts", "2");
+		}
+		return System.getProperty("SESSION_ADMISSION_ATTEMPTS");
+	}
+
+	/**
+	 * Return SESSION_ADMISSION_BACKOFF environment variable, and if null 'session.admission.backoff.ms' property value is
+	 * returned, meaning the milliseconds waited, with random jitter, before trying again to create a session.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSessionAdmissionBackoff() {
+		if (System.getProperty("SESSION_ADMISSION_BACKOFF") == null) {
+			return props.getProperty("session.admission.backoff.ms", "5000");
+		}
+		return System.getProperty("SESSION_ADMISSION_BACKOFF");
+	}
+
+	/**
+	 * Return SESSION_CIRCUIT_THRESHOLD environment variable, and if null 'session.circuit.threshold' property value is
+	 * returned, meaning the consecutive failed sessions that stop the creation of sessions on a region.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSessionCircuitThreshold() {
+		if (System.getProperty("SESSION_CIRCUIT_THRESHOLD") == null) {
+			return props.getProperty("session.circuit.threshold", "3");
+		}
+		return System.getProperty("SESSION_CIRCUIT_THRESHOLD");
+	}
+
+	/**
+	 * Return SESSION_CIRCUIT_OPEN_SECONDS environment variable, and if null 'session.circuit.open.seconds' property value is
+	 * returned, meaning the seconds sessions are refused on a region before trying again.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSessionCircuitOpenSeconds() {
+		if (System.getProperty("SESSION_CIRCUIT_OPEN_SECONDS") == null) {
+			return props.getProperty("session.circuit.open.seconds", "120");
+		}
+		return System.getProperty("SESSION_CIRCUIT_OPEN_SECONDS");
+	}
+
+	//endregion
+
+	//region Device Catalog Config
+
+	/**
+	 * Return DEVICE_CATALOG_TTL environment variable, and if null 'device.catalog.ttl.seconds' property value is
+	 * returned, meaning the seconds the devices of the farm are kept in memory before loading them again.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getDeviceCatalogTtl() {
+		if (System.getProperty("DEVICE_CATALOG_TTL") == null) {
+			return props.getProperty("device.catalog.ttl.seconds", "30");
+		}
+		return System.getProperty("DEVICE_CATALOG_TTL");
+	}
+
+	/**
+	 * Return DEVICE_LEASE_TIMEOUT environment variable, and if null 'device.lease.timeout.seconds' property value is
+	 * returned, meaning the seconds a test waits for a device when all the available ones are leased.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getDeviceLeaseTimeout() {
+		if (System.getProperty("DEVICE_LEASE_TIMEOUT") == null) {
+			return props.getProperty("device.lease.timeout.seconds", "300");
+		}
+		return System.getProperty("DEVICE_LEASE_TIMEOUT");
+	}
+
+	//endregion
+
+	//region Polling Config
+
+	/**
+	 * Return POLLING_INITIAL environment variable, and if null 'polling.initial.ms' property value is
+	 * returned, meaning the milliseconds waited before the second poll of a wait.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getPollingInitial() {
+		if (System.getProperty("POLLING_INITIAL") == null) {
+			return props.getProperty("polling.initial.ms", "50");
+		}
+		return System.getProperty("POLLING_INITIAL");
+	}
+
+	/**
+	 * Return POLLING_MAX environment variable, and if null 'polling.max.ms' property value is
+	 * returned, meaning the max milliseconds between two polls of a wait.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getPollingMax() {
+		if (System.getProperty("POLLING_MAX") == null) {
+			return props.getProperty("polling.max.ms", "1000");
+		}
+		return System.getProperty("POLLING_MAX");
+	}
+
+	/**
+	 * Return POLLING_MULTIPLIER environment variable, and if null 'polling.multiplier' property value is
+	 * returned, meaning how much the interval between polls grows after each poll.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getPollingMultiplier() {
+		if (System.getProperty("POLLING_MULTIPLIER") == null) {
+			return props.getProperty("polling.multiplier", "2");
+		}
+		return System.getProperty("POLLING_MULTIPLIER");
+	}
+
+	//endregion
+
+	//region Gestures Config
+
+	/**
+	 * Return SWIPE_VELOCITY environment variable, and if null 'swipe.velocity' property value is
+	 * returned, meaning the pixels per second a swipe moves when no duration is given.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getSwipeVelocity() {
+		if (System.getProperty("SWIPE_VELOCITY") == null) {
+			return props.getProperty("swipe.velocity", "2500");
+		}
+		return System.getProperty("SWIPE_VELOCITY");
+	}
+
+	/**
+	 * Return SCROLL_NATIVE environment variable, and if null 'scroll.native' property value is
+	 * returned telling if the scroll of the platform should be tried before swiping to an element.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getScrollNative() {
+		if (System.getProperty("SCROLL_NATIVE") == null) {
+			return props.getProperty("scroll.native", "False");
+		}
+		return System.getProperty("SCROLL_NATIVE");
+	}
+
+	//endregion
+
+	//region Screenshot Config
+
+	/**
+	 * Return SCREENSHOT_MAX_WIDTH environment variable, and if null 'screenshot.max.width' property value is
+	 * returned with the width screenshots are downscaled to before being added to the report, 0 keeps the original size.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getScreenshotMaxWidth() {
+		if (System.getProperty("SCREENSHOT_MAX_WIDTH") == null) {
+			return props.getProperty("screenshot.max.width", "0");
+		}
+		return System.getProperty("SCREENSHOT_MAX_WIDTH");
+	}
+
+	/**
+	 * Return SCREENSHOT_SAVE environment variable, and if null 'screenshot.save' property value is
+	 * returned telling if screenshots are also saved on the screenshots folder.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getScreenshotSave() {
+		if (System.getProperty("SCREENSHOT_SAVE") == null) {
+			return props.getProperty("screenshot.save", "False");
+		}
+		return System.getProperty("SCREENSHOT_SAVE");
+	}
+
+	/**
+	 * Return SCREENSHOT_STORE environment variable, and if null 'screenshot.store' property value is
+	 * returned telling if screenshots are referenced from the report folder instead of embedded in Base64.
+	 * It is off by default, since the report is not self-contained anymore once it is on.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getScreenshotStore() {
+		if (System.getProperty("SCREENSHOT_STORE") == null) {
+			return props.getProperty("screenshot.store", "False");
+		}
+		return System.getProperty("SCREENSHOT_STORE");
+	}
+
+	/**
+	 * Return REPORT_ARCHIVE environment variable, and if null 'report.archive' property value is
+	 * returned telling if the report and its screenshots are packed in a zip file at the end of the suite.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getReportArchive() {
+		if (System.getProperty("REPORT_ARCHIVE") == null) {
+			return props.getProperty("report.archive", "False");
+		}
+		return System.getProperty("REPORT_ARCHIVE");
+	}
+
+	//endregion
+
+	//region Log Config
+
+	/**
+	 * Return LOG_EXCERPT_KB environment variable, and if null 'log.excerpt.kb' property value is
+	 * returned with the kilobytes of the end of each test log shown on the report, the whole log is linked.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getLogExcerptKb() {
+		if (System.getProperty("LOG_EXCERPT_KB") == null) {
+			return props.getProperty("log.excerpt.kb", "32");
+		}
+		return System.getProperty("LOG_EXCERPT_KB");
+	}
+
+	/**
+	 * Return LOG_OUTPUT_KB environment variable, and if null 'log.output.kb' property value is
+	 * returned with the max kilobytes of logs shown on the report for the whole suite.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getLogOutputKb() {
+		if (System.getProperty("LOG_OUTPUT_KB") == null) {
+			return props.getProperty("log.output.kb", "4096");
+		}
+		return System.getProperty("LOG_OUTPUT_KB");
+	}
+
+	//endregion
+
+	//region Command Metrics Config
+
+	/**
+	 * Return COMMAND_METRICS environment variable, and if null 'command.metrics' property value is
+	 * returned telling if the time of every driver command is recorded by command and locator.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getCommandMetrics() {
+		if (System.getProperty("COMMAND_METRICS") == null) {
+			return props.getProperty("command.metrics", "False");
+		}
+		return System.getProperty("COMMAND_METRICS");
+	}
+
+	//endregion
+
+	//region Trace Config
+
+	/**
+	 * Return TRACE_ENABLED environment variable, and if null 'trace.enabled' property value is
+	 * returned telling if the timeline of each test is exported as a Chrome trace on test-output/traces.
+	 *
+	 * @author carlos.cadena
+	 * @return the property value
+	 */
+	public static String getTraceEnabled() {
+		if (System.getProperty("TRACE_ENABLED") == null) {
+			return props.getProperty("trace.enabled", "False");
+		}
+		return System.getProperty("TRACE_ENABLED");
+	}
+
 	//endregion
 
 	// region ApiKeys
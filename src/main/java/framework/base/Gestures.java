@@ -0,0 +1,129 @@
+package framework.base;
+
+import framework.report.Tracer;
+import org.openqa.selenium.interactions.Interactive;
+import org.openqa.selenium.interactions.Pause;
+import org.openqa.selenium.interactions.PointerInput;
+import org.openqa.selenium.interactions.Sequence;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Gestures class which performs touch gestures with W3C actions. Swipe sequences are built once
+ * for each set of coordinates and reused, their speed is given by the swipe velocity property and
+ * several swipes can be sent to the device in a single perform.
+ *
+ * @author carlos.cadena
+ */
+public class Gestures {
+
+	/** The finger used by all the gestures. */
+	private static final PointerInput FINGER = new PointerInput(PointerInput.Kind.TOUCH, "finger");
+
+	/** The swipe velocity in pixels per second. */
+	private static final int VELOCITY = FrameworkConfig.get().getSwipeVelocity();
+
+	/** The min duration of a swipe, faster swipes are taken as flings. */
+	private static final Duration MIN_DURATION = Duration.ofMillis(150);
+
+	/** The pause between swipes of a same perform so the content settles. */
+	private static final Duration SETTLE_PAUSE = Duration.ofMillis(150);
+
+	/** The max number of sequences cached. */
+	private static final int MAX_CACHED_SEQUENCES = 256;
+
+	/** The sequences already built by coordinates, duration and steps. */
+	private static final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+	/**
+	 * Swipes at the velocity configured.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @param xStart the x start
+	 * @param yStart the y start
+	 * @param xEnd the x end
+	 * @param yEnd the y end
+	 * @param steps the number of swipes sent in the same perform
+	 */
+	public static void swipe(Interactive driver, int xStart, int yStart, int xEnd, int yEnd, int steps) {
+		swipe(driver, xStart, yStart, xEnd, yEnd, getDuration(xStart, yStart, xEnd, yEnd), steps);
+	}
+
+	/**
+	 * Swipes with the duration provided.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @param xStart the x start
+	 * @param yStart the y start
+	 * @param xEnd the x end
+	 * @param yEnd the y end
+	 * @param duration the duration of each swipe
+	 * @param steps the number of swipes sent in the same perform
+	 */
+	public static void swipe(Interactive driver, int xStart, int yStart, int xEnd, int yEnd, Duration duration, int steps) {
+		if (steps < 1) {
+			return;
+		}
+		String key = xStart + "," + yStart + "," + xEnd + "," + yEnd + "," + duration.toMillis() + "," + steps;
+		Sequence sequence = sequences.get(key);
+		if (sequence == null) {
+			if (sequences.size() >= MAX_CACHED_SEQUENCES) {
+				sequences.clear();
+			}
+			sequence = buildSwipe(xStart, yStart, xEnd, yEnd, duration, steps);
+			sequences.put(key, sequence);
+		}
+		long start = System.nanoTime();
+		try (Tracer.Span span = Tracer.span("swipe")) {
+			driver.perform(Collections.singletonList(sequence));
+		}
+		PerformanceUtils.recordSince(PerformanceUtils.GESTURE, start);
+	}
+
+	/**
+	 * Gets the duration of a swipe at the velocity configured.
+	 *
+	 * @author carlos.cadena
+	 * @param xStart the x start
+	 * @param yStart the y start
+	 * @param xEnd the x end
+	 * @param yEnd the y end
+	 * @return the duration
+	 */
+	public static Duration getDuration(int xStart, int yStart, int xEnd, int yEnd) {
+		double distance = Math.hypot(xEnd - xStart, yEnd - yStart);
+		Duration duration = Duration.ofMillis((long) (distance * 1000 / VELOCITY));
+		return duration.compareTo(MIN_DURATION) < 0 ? MIN_DURATION : duration;
+	}
+
+	/**
+	 * Builds the sequence of a swipe repeated as many times as steps.
+	 *
+	 * @author carlos.cadena
+	 * @param xStart the x start
+	 * @param yStart the y start
+	 * @param xEnd the x end
+	 * @param yEnd the y end
+	 * @param duration the duration of each swipe
+	 * @param steps the steps
+	 * @return the sequence
+	 */
+	private static Sequence buildSwipe(int xStart, int yStart, int xEnd, int yEnd, Duration duration, int steps) {
+		Sequence sequence = new Sequence(FINGER, 0);
+		for (int i = 0; i < steps; i++) {
+			if (i > 0) {
+				sequence.addAction(new Pause(FINGER, SETTLE_PAUSE));
+			}
+			sequence.addAction(FINGER.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), xStart, yStart));
+			sequence.addAction(FINGER.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
+			sequence.addAction(FINGER.createPointerMove(duration, PointerInput.Origin.viewport(), xEnd, yEnd));
+			sequence.addAction(FINGER.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+		}
+		return sequence;
+	}
+}
@@ -1,11 +1,10 @@
 package framework.base;
 
 import framework.report.Log;
-import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import framework.report.Tracer;
 import org.apache.logging.log4j.LogManager;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
-import org.openqa.selenium.support.PageFactory;
 
 import static framework.base.AppiumDriverFacade.appiumDriver;
 
@@ -27,10 +26,10 @@ public abstract class MobileBasePage {
 	 * @author carlos.cadena
 	 */
     private void setLocatorStrategyAndStartLogger() {
-    	  if(FrameworkProperties.getPlatformName().equalsIgnoreCase("Android")) {
+    	  if(FrameworkConfig.get().isAndroid()) {
               mainLocator = setMainLocatorAndroid();
           }
-          else if(FrameworkProperties.getPlatformName().equalsIgnoreCase("iOS")) {
+          else if(FrameworkConfig.get().isIOS()) {
               mainLocator = setMainLocatorIos();
           }
           else {
@@ -47,11 +46,13 @@ public abstract class MobileBasePage {
 	 * @author carlos.cadena
 	 */
     private void checkMainElement() {
-		if (AppiumDriverFacade.isElementPresent(mainLocator)) {
-			PageFactory.initElements(new AppiumFieldDecorator(appiumDriver.get()), this);
-		} else {
-			Log.testFail(pageError);
-			throw new NoSuchElementException(pageError);
+		try (Tracer.Span span = Tracer.span(getClass().getSimpleName())) {
+			if (PerformanceUtils.time(PerformanceUtils.PAGE_LOAD, () -> AppiumDriverFacade.isElementPresent(mainLocator))) {
+				PageElementBinder.bind(this, appiumDriver.get());
+			} else {
+				Log.testFail(pageError);
+				throw new NoSuchElementException(pageError);
+			}
 		}
     }
 
@@ -78,7 +79,7 @@ public abstract class MobileBasePage {
 	protected MobileBasePage(boolean removeFullScreen) throws IllegalArgumentException, NoSuchElementException{
 		setLocatorStrategyAndStartLogger();
 		if(removeFullScreen) {
-			if(FrameworkProperties.getPlatformName().equalsIgnoreCase("Android")) {
+			if(FrameworkConfig.get().isAndroid()) {
 				removeFullScreenAndroid();
 			}
 		}
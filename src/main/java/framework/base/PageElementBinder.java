@@ -0,0 +1,497 @@
+package framework.base;
+
+import framework.base.FrameworkConfig.MobilePlatform;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.DefaultElementByBuilder;
+import io.appium.java_client.pagefactory.WithTimeout;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.support.CacheLookup;
+import org.openqa.selenium.support.PageFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isPublic;
+
+/**
+ * The PageElementBinder class which initializes the annotated elements of the mobile pages. The fields and
+ * locators of each page class are resolved once per platform and kept, so creating a page again only
+ * wires lazy proxies into its fields. The element proxies extend {@link RemoteWebElement}, as the Appium ones
+ * do, so they can be cast the same way. Fields this binder does not handle (widgets, elements without a
+ * locator annotation or without a locator for the platform...) are decorated by the Appium field decorator
+ * as before.
+ *
+ * @author carlos.cadena
+ */
+public class PageElementBinder {
+
+	/** The time an element is looked for when it is used and it has no timeout, as the Appium field decorator does. */
+	private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(1);
+
+	/** The class of the element proxies, a subclass of the remote element calling the handler it holds. */
+	private static final Class<? extends RemoteWebElement> ELEMENT_PROXY = new ByteBuddy()
+			.subclass(RemoteWebElement.class)
+			.implement(WrapsElement.class, HandlerHolder.class)
+			.defineField("handler", InvocationHandler.class, Visibility.PRIVATE)
+			.method(isPublic()).intercept(InvocationHandlerAdapter.toField("handler"))
+			.method(isDeclaredBy(HandlerHolder.class)).intercept(FieldAccessor.ofField("handler"))
+			.make().load(PageElementBinder.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER).getLoaded();
+
+	/** The bindings of each page class by platform. */
+	private static final Map<MobilePlatform, Map<Class<?>, PageBindings>> bindings = new ConcurrentHashMap<>();
+
+	/**
+	 * Initializes the annotated elements of the page.
+	 *
+	 * @author carlos.cadena
+	 * @param page the page
+	 * @param driver the driver the elements are looked for with
+	 */
+	public static void bind(Object page, SearchContext driver) {
+		MobilePlatform platform = FrameworkConfig.get().getPlatform();
+		if (platform == null) {
+			PageFactory.initElements(new AppiumFieldDecorator(driver), page);
+			return;
+		}
+		PageBindings pageBindings = bindings.computeIfAbsent(platform, key -> new ConcurrentHashMap<>())
+				.computeIfAbsent(page.getClass(), pageClass -> resolve(pageClass, platform));
+		for (Binding binding : pageBindings.bindings) {
+			set(page, binding.field, binding.createProxy(driver));
+		}
+		if (!pageBindings.skipped.isEmpty()) {
+			AppiumFieldDecorator decorator = new AppiumFieldDecorator(driver);
+			for (Field field : pageBindings.skipped) {
+				Object value = decorator.decorate(page.getClass().getClassLoader(), field);
+				if (value != null) {
+					set(page, field, value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets a field of the page.
+	 *
+	 * @author carlos.cadena
+	 * @param page the page
+	 * @param field the field
+	 * @param value the value
+	 */
+	private static void set(Object page, Field field, Object value) {
+		try {
+			field.set(page, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Element '" + field.getName() + "' could not be initialized", e);
+		}
+	}
+
+	/**
+	 * Resolves the fields and locators of a page class.
+	 *
+	 * @author carlos.cadena
+	 * @param pageClass the page class
+	 * @param platform the platform
+	 * @return the bindings
+	 */
+	private static PageBindings resolve(Class<?> pageClass, MobilePlatform platform) {
+		List<Binding> pageBindings = new ArrayList<>();
+		List<Field> skipped = new ArrayList<>();
+		ByBuilder builder = new ByBuilder(platform);
+		for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+			for (Field field : type.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())
+						|| !(hasLocator(field) || WebElement.class.isAssignableFrom(field.getType())
+								|| List.class.isAssignableFrom(field.getType()))) {
+					continue;
+				}
+				field.setAccessible(true);
+				boolean isList = isElementList(field);
+				By by = null;
+				if (hasLocator(field) && (isList || field.getType() == WebElement.class)) {
+					try {
+						by = builder.build(field);
+					} catch (RuntimeException e) {
+						by = null;
+					}
+				}
+				if (by == null) {
+					skipped.add(field);
+				} else {
+					pageBindings.add(new Binding(field, by, isList, field.isAnnotationPresent(CacheLookup.class), getTimeout(field)));
+				}
+			}
+		}
+		return new PageBindings(pageBindings, skipped);
+	}
+
+	/**
+	 * Gets the time the element of a field is looked for, from its {@link WithTimeout} annotation.
+	 *
+	 * @author carlos.cadena
+	 * @param field the field
+	 * @return the timeout
+	 */
+	private static Duration getTimeout(Field field) {
+		WithTimeout withTimeout = field.getAnnotation(WithTimeout.class);
+		return withTimeout == null ? LOOKUP_TIMEOUT : Duration.of(withTimeout.time(), withTimeout.chronoUnit());
+	}
+
+	/**
+	 * Checks if the field has a locator annotation.
+	 *
+	 * @author carlos.cadena
+	 * @param field the field
+	 * @return true, if it has a locator
+	 */
+	private static boolean hasLocator(Field field) {
+		for (Annotation annotation : field.getAnnotations()) {
+			String annotationPackage = annotation.annotationType().getPackage().getName();
+			if ((annotationPackage.startsWith("io.appium.java_client.pagefactory")
+					|| annotationPackage.equals("org.openqa.selenium.support"))
+					&& annotation.annotationType() != CacheLookup.class) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if the field is a list of elements.
+	 *
+	 * @author carlos.cadena
+	 * @param field the field
+	 * @return true, if is element list
+	 */
+	private static boolean isElementList(Field field) {
+		if (field.getType() != List.class || !(field.getGenericType() instanceof ParameterizedType)) {
+			return false;
+		}
+		Type[] arguments = ((ParameterizedType) field.getGenericType()).getActualTypeArguments();
+		return arguments.length == 1 && arguments[0] == WebElement.class;
+	}
+
+	/**
+	 * Invokes a method on the target, throwing the exception of the method itself.
+	 *
+	 * @author carlos.cadena
+	 * @param target the target
+	 * @param method the method
+	 * @param args the args
+	 * @return the result
+	 * @throws Throwable the exception thrown by the method
+	 */
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * The Binding class which is a field of a page class with its locator.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class Binding {
+
+		/** The field. */
+		private final Field field;
+
+		/** The locator. */
+		private final By by;
+
+		/** The list flag. */
+		private final boolean isList;
+
+		/** The cache lookup flag. */
+		private final boolean cacheLookup;
+
+		/** The time the element is looked for. */
+		private final Duration timeout;
+
+		/**
+		 * Instantiates a new binding.
+		 *
+		 * @author carlos.cadena
+		 * @param field the field
+		 * @param by the by
+		 * @param isList the is list
+		 * @param cacheLookup the cache lookup
+		 * @param timeout the timeout
+		 */
+		private Binding(Field field, By by, boolean isList, boolean cacheLookup, Duration timeout) {
+			this.field = field;
+			this.by = by;
+			this.isList = isList;
+			this.cacheLookup = cacheLookup;
+			this.timeout = timeout;
+		}
+
+		/**
+		 * Creates the proxy that looks for the element, or elements, when it is used.
+		 *
+		 * @author carlos.cadena
+		 * @param driver the driver
+		 * @return the proxy
+		 */
+		private Object createProxy(SearchContext driver) {
+			if (isList) {
+				return Proxy.newProxyInstance(PageElementBinder.class.getClassLoader(), new Class<?>[] {List.class},
+						new ListHandler(driver, this));
+			}
+			try {
+				RemoteWebElement proxy = ELEMENT_PROXY.getDeclaredConstructor().newInstance();
+				((HandlerHolder) proxy).setHandler(new ElementHandler(driver, this));
+				return proxy;
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Element '" + field.getName() + "' could not be initialized", e);
+			}
+		}
+	}
+
+	/**
+	 * The ElementHandler class which looks for the element of a proxy.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class ElementHandler implements InvocationHandler {
+
+		/** The driver. */
+		private final SearchContext driver;
+
+		/** The binding. */
+		private final Binding binding;
+
+		/** The element found, kept only for cache lookup fields. */
+		private WebElement cached;
+
+		/**
+		 * Instantiates a new element handler.
+		 *
+		 * @author carlos.cadena
+		 * @param driver the driver
+		 * @param binding the binding
+		 */
+		private ElementHandler(SearchContext driver, Binding binding) {
+			this.driver = driver;
+			this.binding = binding;
+		}
+
+		/**
+		 * Looks for the element and invokes the method on it.
+		 *
+		 * @author carlos.cadena
+		 * @param proxy the proxy
+		 * @param method the method
+		 * @param args the args
+		 * @return the result
+		 * @throws Throwable the throwable
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getName().equals("toString") && method.getParameterCount() == 0) {
+				return "Proxy element for: " + binding.by;
+			}
+			WebElement element = find();
+			if (method.getName().equals("getWrappedElement")) {
+				return element;
+			}
+			return PageElementBinder.invoke(element, method, args);
+		}
+
+		/**
+		 * Finds the element.
+		 *
+		 * @author carlos.cadena
+		 * @return the web element
+		 */
+		private WebElement find() {
+			if (cached != null) {
+				return cached;
+			}
+			WebElement element;
+			try {
+				element = new AdaptiveWait<>(driver).withTimeout(WaitBudget.clamp(binding.timeout))
+						.ignoring(NoSuchElementException.class).until(context -> context.findElement(binding.by));
+			} catch (TimeoutException e) {
+				throw new NoSuchElementException("Cannot locate an element using " + binding.by, e);
+			}
+			if (binding.cacheLookup) {
+				cached = element;
+			}
+			return element;
+		}
+	}
+
+	/**
+	 * The ListHandler class which looks for the elements of a list proxy.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class ListHandler implements InvocationHandler {
+
+		/** The driver. */
+		private final SearchContext driver;
+
+		/** The binding. */
+		private final Binding binding;
+
+		/** The elements found, kept only for cache lookup fields. */
+		private List<WebElement> cached;
+
+		/**
+		 * Instantiates a new list handler.
+		 *
+		 * @author carlos.cadena
+		 * @param driver the driver
+		 * @param binding the binding
+		 */
+		private ListHandler(SearchContext driver, Binding binding) {
+			this.driver = driver;
+			this.binding = binding;
+		}
+
+		/**
+		 * Looks for the elements and invokes the method on the list.
+		 *
+		 * @author carlos.cadena
+		 * @param proxy the proxy
+		 * @param method the method
+		 * @param args the args
+		 * @return the result
+		 * @throws Throwable the throwable
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class && method.getName().equals("toString")) {
+				return "Proxy element list for: " + binding.by;
+			}
+			return PageElementBinder.invoke(find(), method, args);
+		}
+
+		/**
+		 * Finds the elements, waiting until there is at least one.
+		 *
+		 * @author carlos.cadena
+		 * @return the elements
+		 */
+		private List<WebElement> find() {
+			if (cached != null) {
+				return cached;
+			}
+			List<WebElement> elements;
+			try {
+				elements = new AdaptiveWait<>(driver).withTimeout(WaitBudget.clamp(binding.timeout)).until(context -> {
+					List<WebElement> found = context.findElements(binding.by);
+					return found.isEmpty() ? null : found;
+				});
+			} catch (TimeoutException e) {
+				elements = new ArrayList<>();
+			}
+			if (binding.cacheLookup) {
+				cached = elements;
+			}
+			return elements;
+		}
+	}
+
+	/**
+	 * The HandlerHolder interface which sets the handler of an element proxy, it is public so the proxy
+	 * classes, loaded on their own class loader, can implement it.
+	 *
+	 * @author carlos.cadena
+	 */
+	public interface HandlerHolder {
+
+		/**
+		 * Sets the handler.
+		 *
+		 * @author carlos.cadena
+		 * @param handler the handler
+		 */
+		void setHandler(InvocationHandler handler);
+	}
+
+	/**
+	 * The PageBindings class which holds the fields of a page class bound by this binder and the ones left
+	 * to the Appium field decorator.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class PageBindings {
+
+		/** The bindings. */
+		private final List<Binding> bindings;
+
+		/** The fields decorated by the Appium field decorator. */
+		private final List<Field> skipped;
+
+		/**
+		 * Instantiates new page bindings.
+		 *
+		 * @author carlos.cadena
+		 * @param bindings the bindings
+		 * @param skipped the skipped fields
+		 */
+		private PageBindings(List<Binding> bindings, List<Field> skipped) {
+			this.bindings = Collections.unmodifiableList(bindings);
+			this.skipped = Collections.unmodifiableList(skipped);
+		}
+	}
+
+	/**
+	 * The ByBuilder class which builds the locator of a field with the Appium annotations rules.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class ByBuilder extends DefaultElementByBuilder {
+
+		/**
+		 * Instantiates a new by builder.
+		 *
+		 * @author carlos.cadena
+		 * @param platform the platform
+		 */
+		private ByBuilder(MobilePlatform platform) {
+			super(platform == MobilePlatform.IOS ? "iOS" : "Android", platform == MobilePlatform.IOS ? "XCUITest" : "UiAutomator2");
+		}
+
+		/**
+		 * Builds the locator of a field.
+		 *
+		 * @author carlos.cadena
+		 * @param field the field
+		 * @return the by, null if the field has no locator for the platform
+		 */
+		private By build(Field field) {
+			setAnnotated(field);
+			return buildBy();
+		}
+	}
+}
@@ -0,0 +1,407 @@
+package framework.base;
+
+import framework.report.Log;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The PageSourceSnapshot class which keeps the UI hierarchy of the app parsed in memory, so presence,
+ * visibility, text and attribute queries can be answered locally with a single page source request.
+ * Locators are translated to XPath, the ones that can not be translated are not supported and should
+ * be queried on the device.
+ *
+ * @author carlos.cadena
+ */
+public class PageSourceSnapshot {
+
+	/** The iOS predicate clause pattern. */
+	private static final Pattern PREDICATE_CLAUSE = Pattern.compile(
+			"^(\\w+)\\s*(==|=|!=|CONTAINS|BEGINSWITH|ENDSWITH)\\s*(?:'([^']*)'|\"([^\"]*)\"|(\\w+))$", Pattern.CASE_INSENSITIVE);
+
+	/** The iOS predicate logical operator pattern. */
+	private static final Pattern PREDICATE_OPERATOR = Pattern.compile("\\s+(AND|OR|&&|\\|\\|)\\s+", Pattern.CASE_INSENSITIVE);
+
+	/** The iOS class chain segment pattern. */
+	private static final Pattern CLASS_CHAIN_SEGMENT = Pattern.compile("^(\\w+|\\*)((?:\\[(?:`[^`]*`|\\d+)])*)$");
+
+	/** The iOS class chain segment condition pattern. */
+	private static final Pattern CLASS_CHAIN_CONDITION = Pattern.compile("\\[(?:`([^`]*)`|(\\d+))]");
+
+	/** The parsed page source. */
+	private final Document document;
+
+	/** The xpath evaluator. */
+	private final XPath xpath = XPathFactory.newInstance().newXPath();
+
+	/** The android execution flag. */
+	private final boolean android;
+
+	/**
+	 * Instantiates a new page source snapshot.
+	 *
+	 * @author carlos.cadena
+	 * @param pageSource the page source
+	 * @param android the android execution flag
+	 * @throws ParserConfigurationException the parser configuration exception
+	 * @throws SAXException the SAX exception
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public PageSourceSnapshot(String pageSource, boolean android) throws ParserConfigurationException, SAXException, IOException {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+		factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+		this.document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(pageSource)));
+		this.android = android;
+	}
+
+	/**
+	 * Takes a snapshot of the current screen of the app.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @param android the android execution flag
+	 * @return the page source snapshot
+	 */
+	public static PageSourceSnapshot capture(WebDriver driver, boolean android) {
+		try {
+			return new PageSourceSnapshot(driver.getPageSource(), android);
+		} catch (ParserConfigurationException | SAXException | IOException e) {
+			throw new IllegalStateException("Page source could not be parsed -> " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Checks if the locator can be evaluated on the snapshot.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @param android the android execution flag
+	 * @return true, if is supported
+	 */
+	public static boolean isSupported(By locator, boolean android) {
+		return toXPath(locator, android) != null;
+	}
+
+	//region Query Methods
+
+	/**
+	 * Checks if an element is present on the snapshot.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @return true, if is present
+	 */
+	public boolean isPresent(By locator) {
+		return !findNodes(locator).isEmpty();
+	}
+
+	/**
+	 * Checks if an element is visible on the snapshot, Android uses the displayed attribute and iOS the
+	 * visible one.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @return true, if is visible
+	 */
+	public boolean isVisible(By locator) {
+		String attribute = android ? "displayed" : "visible";
+		return findNodes(locator).stream().anyMatch(node -> !"false".equals(node.getAttribute(attribute)));
+	}
+
+	/**
+	 * Gets the text of the first element found, iOS uses the value and falls back to the label.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @return the text, or null if the element is not present
+	 */
+	public String getText(By locator) {
+		List<Element> nodes = findNodes(locator);
+		if (nodes.isEmpty()) {
+			return null;
+		}
+		return getText(nodes.get(0));
+	}
+
+	/**
+	 * Gets the text of a node, iOS uses the value and falls back to the label.
+	 *
+	 * @author carlos.cadena
+	 * @param node the node
+	 * @return the text
+	 */
+	private String getText(Element node) {
+		if (android) {
+			return node.getAttribute("text").trim();
+		}
+		return node.getAttribute("value").isEmpty() ? node.getAttribute("label").trim() : node.getAttribute("value").trim();
+	}
+
+	/**
+	 * Gets the texts of all the elements found.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @return the texts
+	 */
+	public List<String> getTexts(By locator) {
+		List<String> texts = new ArrayList<>();
+		for (Element node : findNodes(locator)) {
+			texts.add(getText(node));
+		}
+		return texts;
+	}
+
+	/**
+	 * Gets an attribute of all the elements found, null for the ones not having it.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @param attribute the attribute
+	 * @return the attribute values
+	 */
+	public List<String> getAttributes(By locator, String attribute) {
+		List<String> values = new ArrayList<>();
+		for (Element node : findNodes(locator)) {
+			values.add(node.hasAttribute(attribute) ? node.getAttribute(attribute) : null);
+		}
+		return values;
+	}
+
+	/**
+	 * Gets an attribute of the first element found.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @param attribute the attribute
+	 * @return the attribute value, or null if the element or the attribute are not present
+	 */
+	public String getAttribute(By locator, String attribute) {
+		List<Element> nodes = findNodes(locator);
+		return nodes.isEmpty() || !nodes.get(0).hasAttribute(attribute) ? null : nodes.get(0).getAttribute(attribute);
+	}
+
+	/**
+	 * Finds the nodes of the snapshot matching the locator.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @return the nodes
+	 */
+	public List<Element> findNodes(By locator) {
+		String expression = toXPath(locator, android);
+		if (expression == null) {
+			throw new IllegalArgumentException("Locator not supported on page source snapshot -> " + locator);
+		}
+		List<Element> nodes = new ArrayList<>();
+		try {
+			NodeList result = (NodeList) xpath.evaluate(expression, document, XPathConstants.NODESET);
+			for (int i = 0; i < result.getLength(); i++) {
+				if (result.item(i) instanceof Element) {
+					nodes.add((Element) result.item(i));
+				}
+			}
+		} catch (XPathExpressionException e) {
+			Log.logger.debug("XPath '" + expression + "' could not be evaluated on snapshot -> " + e.getMessage());
+		}
+		return nodes;
+	}
+
+	//endregion
+
+	//region Locator Translation Methods
+
+	/**
+	 * Translates a locator to XPath.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @param android the android execution flag
+	 * @return the xpath, or null if the locator can not be translated
+	 */
+	private static String toXPath(By locator, boolean android) {
+		String strategy = Utils.getLocatorStrategy(locator);
+		if (strategy == null) {
+			return null;
+		}
+		String value = Utils.getLocatorValue(locator);
+		switch (strategy) {
+		case "xpath":
+			return value;
+		case "id":
+			return android ? "//*[@resource-id=" + literal(value) + " or substring-after(@resource-id, ':id/')="
+					+ literal(value) + "]" : "//*[@name=" + literal(value) + "]";
+		case "accessibilityId":
+		case "AccessibilityId":
+			return android ? "//*[@content-desc=" + literal(value) + "]" : "//*[@name=" + literal(value) + "]";
+		case "className":
+			return android ? "//*[@class=" + literal(value) + "]" : "//" + value;
+		case "name":
+			return android ? null : "//*[@name=" + literal(value) + "]";
+		case "iOSNsPredicate":
+		case "iOSNsPredicateString":
+			String predicate = android ? null : predicateToXPath(value);
+			return predicate == null ? null : "//*[" + predicate + "]";
+		case "iOSClassChain":
+			return android ? null : classChainToXPath(value);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Translates a simple iOS predicate, made of comparisons joined only by AND or only by OR.
+	 *
+	 * @author carlos.cadena
+	 * @param predicate the predicate
+	 * @return the xpath condition, or null if the predicate can not be translated
+	 */
+	private static String predicateToXPath(String predicate) {
+		if (predicate.contains("(") || predicate.contains("[c]") || predicate.contains("[d]")) {
+			return null;
+		}
+		String unquoted = predicate.replaceAll("'[^']*'|\"[^\"]*\"", "''");
+		if (PREDICATE_OPERATOR.split(unquoted).length != PREDICATE_OPERATOR.split(predicate).length) {
+			return null;
+		}
+		Matcher operators = PREDICATE_OPERATOR.matcher(predicate);
+		String operator = null;
+		while (operators.find()) {
+			String current = operators.group(1).equalsIgnoreCase("OR") || operators.group(1).equals("||") ? " or " : " and ";
+			if (operator != null && !operator.equals(current)) {
+				return null;
+			}
+			operator = current;
+		}
+		List<String> conditions = new ArrayList<>();
+		for (String clause : PREDICATE_OPERATOR.split(predicate.trim())) {
+			Matcher matcher = PREDICATE_CLAUSE.matcher(clause.trim());
+			if (!matcher.matches()) {
+				return null;
+			}
+			String attribute = "@" + matcher.group(1);
+			String value = matcher.group(3) != null ? matcher.group(3) : matcher.group(4) != null ? matcher.group(4)
+					: booleanValue(matcher.group(5));
+			if (value == null) {
+				return null;
+			}
+			switch (matcher.group(2).toUpperCase()) {
+			case "==":
+			case "=":
+				conditions.add(attribute + "=" + literal(value));
+				break;
+			case "!=":
+				conditions.add("not(" + attribute + "=" + literal(value) + ")");
+				break;
+			case "CONTAINS":
+				conditions.add("contains(" + attribute + ", " + literal(value) + ")");
+				break;
+			case "BEGINSWITH":
+				conditions.add("starts-with(" + attribute + ", " + literal(value) + ")");
+				break;
+			default:
+				conditions.add("substring(" + attribute + ", string-length(" + attribute + ") - " + value.length() + " + 1)="
+						+ literal(value));
+			}
+		}
+		return String.join(operator == null ? " and " : operator, conditions);
+	}
+
+	/**
+	 * Translates a simple iOS class chain, made of types, backtick predicates and positive indexes. The
+	 * index of a descendant segment is applied to all its matches, as {@code (//X[cond])[n]}.
+	 *
+	 * @author carlos.cadena
+	 * @param classChain the class chain
+	 * @return the xpath, or null if the class chain can not be translated
+	 */
+	private static String classChainToXPath(String classChain) {
+		StringBuilder expression = new StringBuilder("//XCUIElementTypeApplication");
+		boolean descendant = false;
+		for (String segment : classChain.split("/(?=(?:[^`]*`[^`]*`)*[^`]*$)")) {
+			if (segment.equals("**")) {
+				descendant = true;
+				continue;
+			}
+			Matcher matcher = CLASS_CHAIN_SEGMENT.matcher(segment);
+			if (!matcher.matches()) {
+				return null;
+			}
+			expression.append(descendant ? "//" : "/").append(matcher.group(1));
+			Matcher conditions = CLASS_CHAIN_CONDITION.matcher(matcher.group(2));
+			while (conditions.find()) {
+				String condition = conditions.group(1) != null ? predicateToXPath(conditions.group(1)) : conditions.group(2);
+				if (condition == null) {
+					return null;
+				}
+				if (descendant && conditions.group(2) != null) {
+					// the index of a descendant segment counts all the matches, not the ones of each parent
+					expression.insert(0, "(").append(")");
+				}
+				expression.append("[").append(condition).append("]");
+			}
+			descendant = false;
+		}
+		return expression.toString();
+	}
+
+	/**
+	 * Translates the boolean values of iOS predicates to the ones on the page source.
+	 *
+	 * @author carlos.cadena
+	 * @param value the value
+	 * @return the boolean value, or null if it is not a boolean
+	 */
+	private static String booleanValue(String value) {
+		switch (value.toUpperCase()) {
+		case "1":
+		case "TRUE":
+		case "YES":
+			return "true";
+		case "0":
+		case "FALSE":
+		case "NO":
+			return "false";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Builds a XPath string literal.
+	 *
+	 * @author carlos.cadena
+	 * @param value the value
+	 * @return the literal
+	 */
+	private static String literal(String value) {
+		if (!value.contains("'")) {
+			return "'" + value + "'";
+		}
+		if (!value.contains("\"")) {
+			return "\"" + value + "\"";
+		}
+		return "concat('" + value.replace("'", "', \"'\", '") + "')";
+	}
+
+	//endregion
+}
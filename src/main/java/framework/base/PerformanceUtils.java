@@ -1,70 +1,302 @@
 package framework.base;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
 /**
- * The PerformanceUtils class that contains all methods to measure execution times.
+ * The PerformanceUtils class that contains all methods to measure execution times. Timers are kept per
+ * thread and each measure is recorded on a named metric, whose percentiles are reported at the end of
+ * the suite. Metrics are recorded lock free so parallel tests do not wait on each other.
  *
  * @author carlos.cadena
  */
 public class PerformanceUtils {
 
-	/** The time start. */
-	private static long timeStart;
+	/** The app activation metric. */
+	public static final String APP_ACTIVATION = "app.activation";
+
+	/** The session creation metric. */
+	public static final String SESSION_CREATION = "session.creation";
+
+	/** The page load metric. */
+	public static final String PAGE_LOAD = "page.load";
+
+	/** The gesture metric. */
+	public static final String GESTURE = "gesture";
 
-	/** The time stop. */
-	private static long timeStop;
+	/** The time start of each thread. */
+	private static final ThreadLocal<Long> timeStart = new ThreadLocal<>();
 
-	/** The time average. */
-	private static float timeAverage;
+	/** The metrics by name. */
+	private static final Map<String, Histogram> metrics = new ConcurrentSkipListMap<>();
 
 	/**
 	 * Start timer.
-	 * 
+	 *
 	 * @author carlos.cadena
-	 * 
+	 *
 	 */
 	public static void startTimer() {
-		timeStart = System.currentTimeMillis();
+		timeStart.set(System.nanoTime());
 	}
 
 	/**
 	 * Stop timer.
-	 * 
+	 *
 	 * @author carlos.cadena
 	 *
-	 * @return after the timer is stopped the timeframe between start and end 
+	 * @return after the timer is stopped the timeframe between start and end
 	 */
 	public static long stopTimer() {
-		if (timeStart == 0.0) {
+		Long start = timeStart.get();
+		if (start == null) {
 			try {
 				throw new NoSuchFieldException("Debes iniciar el timer para poder obtener el tiempo");
 			} catch (NoSuchFieldException e) {
 				e.printStackTrace();
 			}
+			return 0;
 		}
-		timeStop = System.currentTimeMillis();
-		return timeStop - timeStart;
+		timeStart.remove();
+		return (System.nanoTime() - start) / 1_000_000;
 	}
 
 	/**
-	 * Adds the time to average.
-	 * 
+	 * Adds the time to the app activation metric.
+	 *
 	 * @author carlos.cadena
 	 * @param time the time
 	 */
 	public static void addTimeToAverage(long time) {
-		if (timeAverage == 0.0)
-			timeAverage = timeAverage + time;
-		else
-			timeAverage = (timeAverage + time) / 2;
+		record(APP_ACTIVATION, time);
 	}
 
 	/**
-	 * Gets the time average in seconds.
-	 * 
+	 * Gets the mean of the app activation metric in seconds.
+	 *
 	 * @author carlos.cadena
 	 * @return the average time in seconds
 	 */
 	public static float getTimeAverageInSeconds() {
-		return timeAverage / 1000;
+		Histogram histogram = metrics.get(APP_ACTIVATION);
+		return histogram == null ? 0 : (float) histogram.getMean() / 1000;
+	}
+
+	/**
+	 * Records a time on a metric.
+	 *
+	 * @author carlos.cadena
+	 * @param metric the metric
+	 * @param millis the time in milliseconds
+	 */
+	public static void record(String metric, long millis) {
+		metrics.computeIfAbsent(metric, name -> new Histogram()).record(millis);
+	}
+
+	/**
+	 * Records on a metric the time since a start taken with {@link System#nanoTime()}.
+	 *
+	 * @author carlos.cadena
+	 * @param metric the metric
+	 * @param startNanos the start in nanoseconds
+	 */
+	public static void recordSince(String metric, long startNanos) {
+		record(metric, (System.nanoTime() - startNanos) / 1_000_000);
+	}
+
+	/**
+	 * Runs an action and records its time on a metric, even if it fails.
+	 *
+	 * @author carlos.cadena
+	 * @param <T> the generic type
+	 * @param metric the metric
+	 * @param action the action
+	 * @return the result of the action
+	 */
+	public static <T> T time(String metric, Supplier<T> action) {
+		long start = System.nanoTime();
+		try {
+			return action.get();
+		} finally {
+			recordSince(metric, start);
+		}
+	}
+
+	/**
+	 * Gets the metrics recorded.
+	 *
+	 * @author carlos.cadena
+	 * @return the metrics by name
+	 */
+	public static Map<String, Histogram> getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Exports the summary of every metric as JSON.
+	 *
+	 * @author carlos.cadena
+	 * @param file the file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static void exportJson(File file) throws IOException {
+		Map<String, Map<String, Long>> summary = new LinkedHashMap<>();
+		metrics.forEach((name, histogram) -> summary.put(name, histogram.getSummary()));
+		file.getParentFile().mkdirs();
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, summary);
+	}
+
+	/**
+	 * The Histogram class which records times in log-linear buckets: exact below 16 ms and with 16
+	 * sub-buckets per power of two above, so percentiles have an error below 6.25%.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static class Histogram {
+
+		/** The sub-bucket bits. */
+		private static final int SUB_BITS = 4;
+
+		/** The sub-buckets per power of two. */
+		private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+		/** The buckets. */
+		private final AtomicLongArray buckets = new AtomicLongArray(SUB_BUCKETS + (64 - SUB_BITS) * SUB_BUCKETS);
+
+		/** The count. */
+		private final LongAdder count = new LongAdder();
+
+		/** The sum. */
+		private final LongAdder sum = new LongAdder();
+
+		/** The max. */
+		private final AtomicLong max = new AtomicLong();
+
+		/**
+		 * Records a value.
+		 *
+		 * @author carlos.cadena
+		 * @param value the value
+		 */
+		public void record(long value) {
+			long time = Math.max(0, value);
+			buckets.incrementAndGet(index(time));
+			count.increment();
+			sum.add(time);
+			max.accumulateAndGet(time, Math::max);
+		}
+
+		/**
+		 * Gets the number of values recorded.
+		 *
+		 * @author carlos.cadena
+		 * @return the count
+		 */
+		public long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * Gets the mean.
+		 *
+		 * @author carlos.cadena
+		 * @return the mean
+		 */
+		public double getMean() {
+			long total = count.sum();
+			return total == 0 ? 0 : (double) sum.sum() / total;
+		}
+
+		/**
+		 * Gets the max.
+		 *
+		 * @author carlos.cadena
+		 * @return the max
+		 */
+		public long getMax() {
+			return max.get();
+		}
+
+		/**
+		 * Gets a percentile, as the upper bound of the bucket where it falls.
+		 *
+		 * @author carlos.cadena
+		 * @param percentile the percentile between 0 and 100
+		 * @return the value
+		 */
+		public long getPercentile(double percentile) {
+			long total = count.sum();
+			if (total == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+			long seen = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				seen += buckets.get(i);
+				if (seen >= rank) {
+					return Math.min(upperBound(i), getMax());
+				}
+			}
+			return getMax();
+		}
+
+		/**
+		 * Gets the summary with count, mean, p50, p90, p99 and max.
+		 *
+		 * @author carlos.cadena
+		 * @return the summary
+		 */
+		public Map<String, Long> getSummary() {
+			Map<String, Long> summary = new LinkedHashMap<>();
+			summary.put("count", getCount());
+			summary.put("mean", Math.round(getMean()));
+			summary.put("p50", getPercentile(50));
+			summary.put("p90", getPercentile(90));
+			summary.put("p99", getPercentile(99));
+			summary.put("max", getMax());
+			return summary;
+		}
+
+		/**
+		 * Gets the bucket of a value.
+		 *
+		 * @author carlos.cadena
+		 * @param value the value
+		 * @return the index
+		 */
+		private static int index(long value) {
+			if (value < SUB_BUCKETS) {
+				return (int) value;
+			}
+			int exponent = 63 - Long.numberOfLeadingZeros(value);
+			int subBucket = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+			return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + subBucket;
+		}
+
+		/**
+		 * Gets the highest value of a bucket.
+		 *
+		 * @author carlos.cadena
+		 * @param index the index
+		 * @return the upper bound
+		 */
+		private static long upperBound(int index) {
+			if (index < SUB_BUCKETS) {
+				return index;
+			}
+			int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BITS;
+			long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+			return ((subBucket + 1) << (exponent - SUB_BITS)) - 1;
+		}
 	}
 }
@@ -0,0 +1,183 @@
+package framework.base;
+
+import framework.report.Log;
+import org.openqa.selenium.SessionNotCreatedException;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * The SessionAdmission class which controls the creation of sessions on the device farm. Each region
+ * (the host of the farm url, EU or US) admits a limited number of session creations at the same time,
+ * failed creations are tried again after a random backoff, and after several consecutive failures the
+ * circuit of the region is opened: while it is open sessions are refused at once, instead of every
+ * thread waiting for the creation timeout, until a single session is let through to probe the farm.
+ *
+ * @author carlos.cadena
+ */
+public class SessionAdmission {
+
+	/** The regions by host. */
+	private static final Map<String, Region> regions = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a session on the region of the url, the local sessions are created directly.
+	 *
+	 * @author carlos.cadena
+	 * @param <T> the type of the driver
+	 * @param url the url of the farm
+	 * @param sessionFactory the session factory
+	 * @return the driver
+	 * @throws SessionNotCreatedException if the circuit of the region is open or the session could not be created
+	 */
+	public static <T> T admit(URL url, Supplier<T> sessionFactory) {
+		if (FrameworkConfig.get().isLocal()) {
+			return sessionFactory.get();
+		}
+		Region region = regions.computeIfAbsent(url.getHost(), Region::new);
+		int attempts = FrameworkConfig.get().getSessionAdmissionAttempts();
+		RuntimeException failure = null;
+		for (int attempt = 0; attempt < attempts; attempt++) {
+			boolean probe = region.checkCircuit();
+			try {
+				if (attempt > 0) {
+					backoff(attempt);
+				}
+				try {
+					region.permits.acquire();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new SessionNotCreatedException("Interrupted while waiting to create a session on '" + region.host + "'");
+				}
+				try {
+					T driver = sessionFactory.get();
+					region.onSuccess();
+					return driver;
+				} catch (RuntimeException e) {
+					failure = e;
+					region.onFailure();
+					Log.logger.debug("Session could not be created on '" + region.host + "', attempt " + (attempt + 1)
+							+ " of " + attempts + " -> " + e.getMessage());
+				} finally {
+					region.permits.release();
+				}
+			} finally {
+				if (probe) {
+					region.endProbe();
+				}
+			}
+		}
+		throw failure;
+	}
+
+	/**
+	 * Waits a random time, up to the base backoff doubled for each attempt, so threads failing at the
+	 * same time do not try again all together.
+	 *
+	 * @author carlos.cadena
+	 * @param attempt the attempt
+	 */
+	private static void backoff(int attempt) {
+		long maxWait = (long) FrameworkConfig.get().getSessionAdmissionBackoff() << Math.min(attempt - 1, 10);
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(maxWait / 2, maxWait + 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SessionNotCreatedException("Interrupted while waiting to create a session again");
+		}
+	}
+
+	/**
+	 * The Region class which holds the admission state of a farm region.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class Region {
+
+		/** The host. */
+		private final String host;
+
+		/** The permits of the session creations. */
+		private final Semaphore permits = new Semaphore(FrameworkConfig.get().getSessionAdmissionLimit(), true);
+
+		/** The consecutive failures. */
+		private int failures;
+
+		/** The time the circuit closes, 0 if it is closed. */
+		private long openUntil;
+
+		/** The flag telling if a session is probing the farm after the circuit was open. */
+		private boolean probing;
+
+		/**
+		 * Instantiates a new region.
+		 *
+		 * @author carlos.cadena
+		 * @param host the host
+		 */
+		private Region(String host) {
+			this.host = host;
+		}
+
+		/**
+		 * Checks the circuit of the region, letting through a single probe once the open time is over.
+		 *
+		 * @author carlos.cadena
+		 * @return true, if the caller is the probe and must call {@link #endProbe} once it is done
+		 * @throws SessionNotCreatedException if the circuit is open
+		 */
+		private synchronized boolean checkCircuit() {
+			if (openUntil == 0) {
+				return false;
+			}
+			long remaining = openUntil - System.currentTimeMillis();
+			if (remaining <= 0 && !probing) {
+				probing = true;
+				return true;
+			}
+			throw new SessionNotCreatedException(String.format("Device farm '%s' is not creating sessions, %d "
+					+ "consecutive sessions failed, the circuit is open for %d more seconds",
+					host, failures, Math.max(remaining, 0) / 1000));
+		}
+
+		/**
+		 * Closes the circuit after a session is created.
+		 *
+		 * @author carlos.cadena
+		 */
+		private synchronized void onSuccess() {
+			failures = 0;
+			openUntil = 0;
+			probing = false;
+		}
+
+		/**
+		 * Ends the probe, however it ended, so an interrupted or broken probe does not keep the circuit
+		 * from letting another one through.
+		 *
+		 * @author carlos.cadena
+		 */
+		private synchronized void endProbe() {
+			probing = false;
+		}
+
+		/**
+		 * Counts a failed session, opening the circuit when the threshold is reached or the probe failed.
+		 *
+		 * @author carlos.cadena
+		 */
+		private synchronized void onFailure() {
+			failures++;
+			FrameworkConfig config = FrameworkConfig.get();
+			if (failures >= config.getSessionCircuitThreshold() || probing) {
+				openUntil = System.currentTimeMillis() + config.getSessionCircuitOpenSeconds() * 1000L;
+				probing = false;
+				Log.logger.debug("Circuit of device farm '" + host + "' opened after " + failures + " consecutive failures");
+			}
+		}
+	}
+}
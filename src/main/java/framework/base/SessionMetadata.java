@@ -0,0 +1,134 @@
+package framework.base;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.Dimension;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The SessionMetadata class which caches, for each Appium session, the device information that does
+ * not change while the session lives (platform, version, device name) and the one that only changes
+ * on rotation or context switch (window size), so it is not requested on every gesture. The contexts are
+ * not cached, web views come and go without any event the framework sees.
+ *
+ * @author carlos.cadena
+ */
+public class SessionMetadata {
+
+	/** The metadata by session id. */
+	private static final Map<String, SessionMetadata> sessions = new ConcurrentHashMap<>();
+
+	/** The platform name. */
+	private final String platformName;
+
+	/** The platform version. */
+	private final String platformVersion;
+
+	/** The device name. */
+	private final String deviceName;
+
+	/** The window size. */
+	private volatile Dimension windowSize;
+
+	/**
+	 * Instantiates a new session metadata from the session details.
+	 *
+	 * @author carlos.cadena
+	 * @param sessionDetails the session details
+	 */
+	private SessionMetadata(Map<String, Object> sessionDetails) {
+		this.platformName = String.valueOf(sessionDetails.get("platformName"));
+		this.platformVersion = String.valueOf(sessionDetails.get("platformVersion"));
+		this.deviceName = String.valueOf(sessionDetails.get("deviceName"));
+	}
+
+	/**
+	 * Gets the metadata of the session of the driver, session details are requested only the first time.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @return the session metadata
+	 */
+	public static SessionMetadata of(AppiumDriver driver) {
+		return sessions.computeIfAbsent(driver.getSessionId().toString(),
+				sessionId -> new SessionMetadata(driver.getSessionDetails()));
+	}
+
+	/**
+	 * Discards the metadata of the session of the driver, should be called when the session is quit.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 */
+	public static void remove(AppiumDriver driver) {
+		if (driver != null && driver.getSessionId() != null) {
+			sessions.remove(driver.getSessionId().toString());
+		}
+	}
+
+	/**
+	 * Gets the platform name.
+	 *
+	 * @author carlos.cadena
+	 * @return the platform name
+	 */
+	public String getPlatformName() {
+		return platformName;
+	}
+
+	/**
+	 * Gets the platform version.
+	 *
+	 * @author carlos.cadena
+	 * @return the platform version
+	 */
+	public String getPlatformVersion() {
+		return platformVersion;
+	}
+
+	/**
+	 * Gets the platform name and version, as in "Android 10".
+	 *
+	 * @author carlos.cadena
+	 * @return the platform and version
+	 */
+	public String getPlatformAndVersion() {
+		return platformName + " " + platformVersion;
+	}
+
+	/**
+	 * Gets the device name.
+	 *
+	 * @author carlos.cadena
+	 * @return the device name
+	 */
+	public String getDeviceName() {
+		return deviceName;
+	}
+
+	/**
+	 * Gets the window size, it is requested only the first time or after being invalidated.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @return the window size
+	 */
+	public Dimension getWindowSize(AppiumDriver driver) {
+		Dimension size = windowSize;
+		if (size == null) {
+			size = driver.manage().window().getSize();
+			windowSize = size;
+		}
+		return size;
+	}
+
+	/**
+	 * Discards the window size, should be called on rotation or context switch.
+	 *
+	 * @author carlos.cadena
+	 */
+	public void invalidate() {
+		windowSize = null;
+	}
+}
@@ -0,0 +1,51 @@
+package framework.base;
+
+import framework.report.Tracer;
+import io.appium.java_client.MobileCommand;
+import io.appium.java_client.remote.AppiumCommandExecutor;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.Response;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * The TimedCommandExecutor class which sends the commands of a driver to the server as the Appium command
+ * executor does, recording the time of each one on {@link CommandMetrics} and on the trace of the test.
+ *
+ * @author carlos.cadena
+ */
+public class TimedCommandExecutor extends AppiumCommandExecutor {
+
+	/**
+	 * Instantiates a new timed command executor.
+	 *
+	 * @author carlos.cadena
+	 * @param url the url of the server
+	 */
+	public TimedCommandExecutor(URL url) {
+		super(MobileCommand.commandRepository, url);
+	}
+
+	/**
+	 * Executes the command and records its time.
+	 *
+	 * @author carlos.cadena
+	 * @param command the command
+	 * @return the response
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Override
+	public Response execute(Command command) throws IOException {
+		long start = System.nanoTime();
+		Response response = null;
+		try {
+			response = super.execute(command);
+			return response;
+		} finally {
+			long nanos = System.nanoTime() - start;
+			CommandMetrics.record(command, response, nanos);
+			Tracer.record(command.getName(), "command", start, nanos);
+		}
+	}
+}
@@ -3,13 +3,17 @@ package framework.base;
 import com.google.common.base.Function;
 import framework.report.Log;
 import framework.test.TestUtils;
+import io.appium.java_client.AppiumDriver;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.Wait;
 
-import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static framework.base.AppiumDriverFacade.pageTimeOut;
 
@@ -28,6 +32,20 @@ public class Utils {
 	 */
 	public enum MovementsH {LEFT, RIGHT}
 
+	/**
+	 * Creates the wait used by every wait helper, with adaptive polling and bounded by the wait budget
+	 * open on the thread.
+	 *
+	 * @author carlos.cadena
+	 * @param <T> the input type
+	 * @param input the input, driver or container
+	 * @param timeOut the time out
+	 * @return the fluent wait
+	 */
+	public static <T> FluentWait<T> newWait(T input, int timeOut) {
+		return new AdaptiveWait<>(input).withTimeout(WaitBudget.clamp(timeOut));
+	}
+
 	//region Find Element Methods
 	
 	/**
@@ -125,6 +143,42 @@ public class Utils {
 		waitForElementVisibility(driver, element, pageTimeOut);
 	}
 
+	/**
+	 * Finds the first element matching the condition among several locators. Every locator is polled on
+	 * each round, in the order provided, so the whole lookup is bound to a single timeout instead of
+	 * one timeout per locator.
+	 *
+	 * @author carlos.cadena
+	 * @param context the search context, driver or container
+	 * @param locators the locators
+	 * @param condition the condition the element should match
+	 * @param timeOut the time out
+	 * @return the first matching element, or null if none matched before the timeout
+	 */
+	public static WebElement findFirstMatchingElement(SearchContext context, List<By> locators, Predicate<WebElement> condition, int timeOut) {
+		try {
+			return newWait(context, timeOut)
+					.ignoring(WebDriverException.class)
+					.until(arg -> {
+						for (By locator : locators) {
+							for (WebElement element : arg.findElements(locator)) {
+								try {
+									if (condition.test(element)) {
+										Log.logger.debug("matching locator found -> " + locator.toString());
+										return element;
+									}
+								} catch (StaleElementReferenceException | NoSuchElementException e) {
+									Log.logger.debug("Element for locator '" + locator.toString() + "' changed while being evaluated");
+								}
+							}
+						}
+						return null;
+					});
+		} catch (TimeoutException e) {
+			return null;
+		}
+	}
+
 	//endregion
 
     //region Wait Methods
@@ -137,7 +191,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static void waitForElementVisibility(WebDriver driver, WebElement element, int timeOut) {
-		Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebDriver> wait = newWait(driver, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 				.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class);
 		wait.until(ExpectedConditions.visibilityOf(element));
@@ -152,7 +206,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static <T extends WebElement> void waitForElementVisibility(T container, By locator, int timeOut) {
-		FluentWait<WebElement> wait = new FluentWait<WebElement>(container).withTimeout(Duration.ofSeconds(timeOut))
+		FluentWait<WebElement> wait = newWait(container, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 				.ignoring(ElementNotVisibleException.class);
 		wait.until((Function<WebElement, Boolean>) arg -> arg.findElement(locator).isDisplayed());
@@ -176,7 +230,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static void waitForAllElementsVisibility(WebDriver driver, List<? extends WebElement> elements, int timeOut) {
-		Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebDriver> wait = newWait(driver, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 				.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class);
 		for (WebElement element : elements) {
@@ -192,7 +246,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static void waitForAllElementsVisibility(WebDriver driver, By locator, int timeOut) {
-		Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebDriver> wait = newWait(driver, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 				.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class);
 		wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
@@ -207,7 +261,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static <T extends WebElement> void waitForAllElementsVisibility(T container, By locator, int timeOut) {
-		Wait<WebElement> wait = new FluentWait<WebElement>(container).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebElement> wait = newWait(container, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 				.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class);
 		wait.until((Function<WebElement, Boolean>) arg -> {
@@ -243,7 +297,7 @@ public class Utils {
 	public static void waitForElementVisibilityByIndex(WebDriver driver, List<? extends WebElement> elements, int index,
 			int timeOut) {
 		if(elements != null && !elements.isEmpty() && index < elements.size()) {
-			Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+			Wait<WebDriver> wait = newWait(driver, timeOut)
 					.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 					.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class);
 			wait.until(ExpectedConditions.visibilityOf(elements.get(index)));
@@ -273,7 +327,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static void waitForElementVisibility(WebDriver driver, By locator, int timeOut) {
-		Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebDriver> wait = newWait(driver, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 				.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class);
 		wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
@@ -291,7 +345,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static void waitForElementAttributeToBePresent(WebDriver driver, By locator, String attribute, String value, int timeOut) {
-		Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebDriver> wait = newWait(driver, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 				.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class);
 		wait.until(ExpectedConditions.attributeToBe(locator, attribute, value));
@@ -309,7 +363,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static <T extends WebElement> void waitForElementAttributeToBePresent(WebDriver driver, T element, String attribute, String value, int timeOut) {
-		Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebDriver> wait = newWait(driver, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 				.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class);
 		wait.until(ExpectedConditions.attributeToBe(element, attribute, value));
@@ -329,7 +383,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static <T extends WebElement> void waitForElementAttributeToBePresent(T container, By locator, String attribute, String value, int timeOut) {
-		Wait<WebElement> wait = new FluentWait<WebElement>(container).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebElement> wait = newWait(container, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 				.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class);
 		wait.until((Function<WebElement, Boolean>) arg -> {
@@ -356,7 +410,7 @@ public class Utils {
 	 */
 	public static <T extends WebElement> void waitForElementAttributeToBePresentByIndex(WebDriver driver, List<T> elements, int index, String attribute, String value, int timeOut) {
 		if(elements != null && !elements.isEmpty() && index < elements.size()) {
-			Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+			Wait<WebDriver> wait = newWait(driver, timeOut)
 					.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 					.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class);
 			wait.until(ExpectedConditions.attributeToBe(elements.get(index), attribute, value));
@@ -386,7 +440,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static void waitForElementEnabled(WebDriver driver, WebElement element, int timeOut) {
-		Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebDriver> wait = newWait(driver, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 				.ignoring(ElementNotSelectableException.class).ignoring(ElementNotVisibleException.class)
 				.ignoring(WebDriverException.class);
@@ -411,7 +465,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static void waitForElementPresence(WebDriver driver, By locator, int timeOut) {
-		Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebDriver> wait = newWait(driver, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class);
 		wait.until(ExpectedConditions.presenceOfElementLocated(locator));
 	}
@@ -425,7 +479,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static <T extends WebElement> void waitForElementPresence(T container, By locator, int timeOut) {
-		Wait<WebElement> wait = new FluentWait<WebElement>(container).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebElement> wait = newWait(container, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class);
 		wait.until((Function<WebElement, WebElement>) arg -> arg.findElement(locator));
 	}
@@ -438,7 +492,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static void waitForAllElementsPresence(WebDriver driver, By locator, int timeOut) {
-		Wait<WebDriver> wait = new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebDriver> wait = newWait(driver, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class);
 		wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
 	}
@@ -452,7 +506,7 @@ public class Utils {
 	 * @param timeOut the time out
 	 */
 	public static <T extends WebElement> void waitForAllElementsPresence(T container, By locator, int timeOut) {
-		Wait<WebElement> wait = new FluentWait<WebElement>(container).withTimeout(Duration.ofSeconds(timeOut))
+		Wait<WebElement> wait = newWait(container, timeOut)
 				.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class);
 		wait.until((Function<WebElement, List<WebElement>>) arg -> arg.findElements(locator));
 	}
@@ -472,7 +526,7 @@ public class Utils {
 	 */
 	public static <T extends WebElement> boolean areElementsVisible(WebDriver driver, List<T> elements, int timeOut) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+			return newWait(driver, timeOut)
 					.ignoring(NoSuchElementException.class).ignoring(ElementNotVisibleException.class)
 					.ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class)
 					.until((Function<WebDriver, Boolean>) driver1 -> elements.stream().allMatch(element -> Utils.isElementVisible(driver1, element, timeOut)));
@@ -494,7 +548,7 @@ public class Utils {
 	 */
 	public static <T extends WebElement> boolean isElementVisible(T container, By locator, int timeOut) {
 		try {
-			return new FluentWait<WebElement>(container).withTimeout(Duration.ofSeconds(timeOut))
+			return newWait(container, timeOut)
 					.ignoring(NoSuchElementException.class).ignoring(ElementNotVisibleException.class)
 					.ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class)
 					.until((Function<WebElement, Boolean>) arg -> arg.findElement(locator).isDisplayed());
@@ -517,7 +571,7 @@ public class Utils {
 	 */
 	public static <T extends WebElement> boolean isElementNotVisible(T container, By locator, int timeOut) {
 		try {
-			return new FluentWait<WebElement>(container).withTimeout(Duration.ofSeconds(timeOut))
+			return newWait(container, timeOut)
 					.ignoring(NoSuchElementException.class).ignoring(ElementNotVisibleException.class)
 					.ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class)
 					.until((Function<WebElement, Boolean>) arg -> {
@@ -545,7 +599,7 @@ public class Utils {
 	 */
 	public static boolean isElementVisible(WebDriver driver, WebElement element, int timeOut) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+			return newWait(driver, timeOut)
 					.ignoring(NoSuchElementException.class).ignoring(ElementNotVisibleException.class)
 					.ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class)
 					.until((Function<WebDriver, Boolean>) arg -> element.isDisplayed());
@@ -565,7 +619,7 @@ public class Utils {
 	 */
 	public static boolean isElementNotVisible(WebDriver driver, WebElement element, int timeOut) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut)).ignoring(WebDriverException.class)
+			return newWait(driver, timeOut).ignoring(WebDriverException.class)
 					.until((Function<WebDriver, Boolean>) arg -> {
 						{
 							try {
@@ -593,7 +647,7 @@ public class Utils {
 	 */
 	public static boolean isElementVisible(WebDriver driver, List<? extends WebElement> elements, int index, int timeOut) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+			return newWait(driver, timeOut)
 					.ignoring(NoSuchElementException.class).ignoring(ElementNotVisibleException.class)
 					.ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class)
 					.until((Function<WebDriver, Boolean>) arg -> {
@@ -619,7 +673,7 @@ public class Utils {
 	 */
 	public static boolean isElementEnabled(WebDriver driver, WebElement element, int timeOut) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+			return newWait(driver, timeOut)
 					.ignoring(NoSuchElementException.class).ignoring(ElementNotVisibleException.class)
 					.ignoring(StaleElementReferenceException.class).ignoring(ElementNotInteractableException.class)
 					.ignoring(ElementNotSelectableException.class).ignoring(WebDriverException.class)
@@ -641,7 +695,7 @@ public class Utils {
 	 */
 	public static boolean isElementEnabled(WebDriver driver, List<? extends WebElement> elements, int index, int timeOut) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+			return newWait(driver, timeOut)
 					.ignoring(NoSuchElementException.class).ignoring(ElementNotVisibleException.class)
 					.ignoring(StaleElementReferenceException.class).ignoring(ElementNotVisibleException.class)
 					.ignoring(ElementNotSelectableException.class).ignoring(WebDriverException.class)
@@ -669,7 +723,7 @@ public class Utils {
 	 */
 	public static boolean isElementVisible(WebDriver driver, By locator, int timeOut) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut))
+			return newWait(driver, timeOut)
 					.ignoring(NoSuchElementException.class).ignoring(ElementNotVisibleException.class)
 					.ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class)
 					.until((Function<WebDriver, Boolean>) arg -> {
@@ -695,7 +749,7 @@ public class Utils {
 	 */
 	public static boolean isElementNotVisible(WebDriver driver, By locator, int timeOut) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeOut)).ignoring(WebDriverException.class)
+			return newWait(driver, timeOut).ignoring(WebDriverException.class)
 					.until((Function<WebDriver, Boolean>) arg -> {
 						try {
 							return !arg.findElement(locator).isDisplayed();
@@ -724,7 +778,7 @@ public class Utils {
 	 */
 	public static boolean isElementEnabled(WebDriver driver, By locator, int timeout) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeout))
+			return newWait(driver, timeout)
 					.ignoring(NoSuchElementException.class)
 					.ignoring(StaleElementReferenceException.class).ignoring(ElementNotSelectableException.class)
 					.ignoring(ElementNotVisibleException.class).until((Function<WebDriver, Boolean>) arg -> {
@@ -750,7 +804,7 @@ public class Utils {
 	 */
 	public static boolean isElementPresent(WebElement container, By locator, int timeout) {
 		try {
-			return new FluentWait<>(container).withTimeout(Duration.ofSeconds(timeout))
+			return newWait(container, timeout)
 					.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 					.ignoring(WebDriverException.class).until((Function<WebElement, Boolean>) arg -> {
 						WebElement element = arg.findElement(locator);
@@ -775,7 +829,7 @@ public class Utils {
 	 */
 	public static boolean isElementPresent(WebDriver driver, By locator, int timeout) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeout))
+			return newWait(driver, timeout)
 					.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 					.ignoring(WebDriverException.class).until((Function<WebDriver, Boolean>) arg -> {
 						WebElement element = arg.findElement(locator);
@@ -804,7 +858,7 @@ public class Utils {
 	 */
 	public static boolean isAttributePresentOnElement(WebDriver driver, By locator, String attribute, String value, boolean contains, int timeout) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeout))
+			return newWait(driver, timeout)
 					.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 					.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class)
 					.until((Function<WebDriver, Boolean>) arg -> {
@@ -835,7 +889,7 @@ public class Utils {
 	 */
 	public static boolean isAttributePresentOnElement(WebElement container, By locator, String attribute, String value, boolean contains, int timeout) {
 		try {
-			return new FluentWait<>(container).withTimeout(Duration.ofSeconds(timeout))
+			return newWait(container, timeout)
 					.ignoring(NoSuchElementException.class).ignoring(ElementNotVisibleException.class)
 					.ignoring(StaleElementReferenceException.class).ignoring(WebDriverException.class)
 					.until((Function<WebElement, Boolean>) arg -> {
@@ -865,7 +919,7 @@ public class Utils {
 	 */
 	public static boolean isAttributePresentOnElement(WebDriver driver, WebElement element, String attribute, String value, boolean contains, int timeout) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeout))
+			return newWait(driver, timeout)
 					.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 					.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class)
 					.until((Function<WebDriver, Boolean>) arg -> (contains ? element.getAttribute(attribute).contains(value) : element.getAttribute(attribute).equals(value)));
@@ -890,10 +944,11 @@ public class Utils {
 	 */
 	public static <T extends WebElement> boolean isAttributePresentOnAllElements(WebDriver driver, List<T> elements, String attribute, String value, boolean contains, int timeout) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeout))
+			return newWait(driver, timeout)
 					.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 					.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class)
-					.until((Function<WebDriver, Boolean>) arg -> elements.stream().allMatch(element -> contains ? element.getAttribute(attribute).contains(value) : element.getAttribute(attribute).equals(value)));
+					.until((Function<WebDriver, Boolean>) arg -> getElementsAttribute(arg, elements, attribute).stream()
+							.allMatch(actual -> actual != null && (contains ? actual.contains(value) : actual.equals(value))));
 		} catch (TimeoutException e) {
 			return false;
 		}
@@ -916,7 +971,7 @@ public class Utils {
 	 */
 	public static <T extends WebElement> boolean isAttributePresentOnElementByIndex(WebDriver driver, List<T> elements,  int index, String attribute, String value, boolean contains, int timeout) {
 		try {
-			return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeout))
+			return newWait(driver, timeout)
 					.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
 					.ignoring(ElementNotVisibleException.class).ignoring(WebDriverException.class)
 					.until((Function<WebDriver, Boolean>) arg -> {
@@ -930,6 +985,119 @@ public class Utils {
 
 
 
+	//endregion
+
+	//region Bulk Read Methods
+
+	/** The script returning the texts of a list of elements. */
+	private static final String ELEMENTS_TEXT_SCRIPT = "return arguments[0].map(function (e) {"
+			+ " return (e.innerText !== undefined ? e.innerText : e.textContent || '').trim(); });";
+
+	/** The script returning an attribute, or the property of the same name, of a list of elements. */
+	private static final String ELEMENTS_ATTRIBUTE_SCRIPT = "var name = arguments[1];"
+			+ " return arguments[0].map(function (e) {"
+			+ " var v = e[name];"
+			+ " if (v === undefined || v === null || typeof v === 'object' || typeof v === 'function') { v = e.getAttribute(name); }"
+			+ " return v === null || v === undefined ? null : String(v); });";
+
+	/**
+	 * Gets the texts of a list of elements, on web contexts all of them are read with a single script.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @param elements the elements
+	 * @return the texts
+	 */
+	public static List<String> getElementsText(WebDriver driver, List<? extends WebElement> elements) {
+		if (isScriptable(driver) && !elements.isEmpty()) {
+			return toStrings(((JavascriptExecutor) driver).executeScript(ELEMENTS_TEXT_SCRIPT, elements));
+		}
+		List<String> texts = new ArrayList<>();
+		elements.forEach(element -> texts.add(element.getText()));
+		return texts;
+	}
+
+	/**
+	 * Gets an attribute of a list of elements, on web contexts all of them are read with a single script.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @param elements the elements
+	 * @param attribute the attribute
+	 * @return the attribute values
+	 */
+	public static List<String> getElementsAttribute(WebDriver driver, List<? extends WebElement> elements, String attribute) {
+		if (isScriptable(driver) && !elements.isEmpty()) {
+			return toStrings(((JavascriptExecutor) driver).executeScript(ELEMENTS_ATTRIBUTE_SCRIPT, elements, attribute));
+		}
+		List<String> values = new ArrayList<>();
+		elements.forEach(element -> values.add(element.getAttribute(attribute)));
+		return values;
+	}
+
+	/**
+	 * Checks if scripts can be run on the driver, that is a web driver, a mobile browser session or a
+	 * mobile driver switched to a web context.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @return true, if is scriptable
+	 */
+	private static boolean isScriptable(WebDriver driver) {
+		if (!(driver instanceof JavascriptExecutor)) {
+			return false;
+		}
+		if (!(driver instanceof AppiumDriver)) {
+			return true;
+		}
+		String browserName = ((AppiumDriver) driver).getCapabilities().getBrowserName();
+		return (browserName != null && !browserName.isEmpty()) || AppiumDriverFacade.isWebContext();
+	}
+
+	/**
+	 * Converts the list returned by a script to a list of strings.
+	 *
+	 * @author carlos.cadena
+	 * @param result the script result
+	 * @return the strings
+	 */
+	private static List<String> toStrings(Object result) {
+		List<String> values = new ArrayList<>();
+		((List<?>) result).forEach(value -> values.add(value == null ? null : value.toString()));
+		return values;
+	}
+
+	//endregion
+
+	//region Locator Methods
+
+	/** The locator pattern, matches the toString of Selenium and Appium locators. */
+	private static final Pattern LOCATOR = Pattern.compile("^(?:By|AppiumBy|MobileBy)\\.(\\w+): (.*)$", Pattern.DOTALL);
+
+	/**
+	 * Gets the strategy of a locator, as in "xpath", "id", "accessibilityId" or "iOSNsPredicate".
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @return the strategy, or null if the locator is not a Selenium or Appium one
+	 */
+	public static String getLocatorStrategy(By locator) {
+		Matcher matcher = LOCATOR.matcher(locator.toString());
+		return matcher.matches() ? matcher.group(1) : null;
+	}
+
+	/**
+	 * Gets the value of a locator.
+	 *
+	 * @author carlos.cadena
+	 * @param locator the locator
+	 * @return the value, or null if the locator is not a Selenium or Appium one
+	 */
+	public static String getLocatorValue(By locator) {
+		Matcher matcher = LOCATOR.matcher(locator.toString());
+		return matcher.matches() ? matcher.group(2) : null;
+	}
+
 	//endregion
 
     //region Other Methods
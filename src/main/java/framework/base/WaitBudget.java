@@ -0,0 +1,120 @@
+package framework.base;
+
+import java.time.Duration;
+
+/**
+ * The WaitBudget class which bounds the total time a step can spend waiting. While a budget is open on
+ * the thread, every wait done through {@link Utils} draws from the same remaining time instead of
+ * starting its own timeout, nested budgets can never go beyond the deadline of the outer one.
+ *
+ * <pre>
+ * try (WaitBudget budget = WaitBudget.start(10)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author carlos.cadena
+ */
+public class WaitBudget implements AutoCloseable {
+
+	/** The budget open on each thread. */
+	private static final ThreadLocal<WaitBudget> current = new ThreadLocal<>();
+
+	/** The deadline in nanoseconds. */
+	private final long deadline;
+
+	/** The outer budget. */
+	private final WaitBudget outer;
+
+	/**
+	 * Instantiates a new wait budget.
+	 *
+	 * @author carlos.cadena
+	 * @param deadline the deadline
+	 * @param outer the outer budget
+	 */
+	private WaitBudget(long deadline, WaitBudget outer) {
+		this.deadline = deadline;
+		this.outer = outer;
+	}
+
+	/**
+	 * Opens a budget on the current thread, it must be closed when the step finishes.
+	 *
+	 * @author carlos.cadena
+	 * @param seconds the seconds
+	 * @return the wait budget
+	 */
+	public static WaitBudget start(int seconds) {
+		WaitBudget outer = current.get();
+		long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+		if (outer != null && outer.deadline - deadline < 0) {
+			deadline = outer.deadline;
+		}
+		WaitBudget budget = new WaitBudget(deadline, outer);
+		current.set(budget);
+		return budget;
+	}
+
+	/**
+	 * Gets the time a wait can take, the timeout requested bounded by the budget open on the thread.
+	 *
+	 * @author carlos.cadena
+	 * @param seconds the timeout requested in seconds
+	 * @return the duration
+	 */
+	public static Duration clamp(int seconds) {
+		return clamp(Duration.ofSeconds(seconds));
+	}
+
+	/**
+	 * Gets the time a wait can take, the timeout requested bounded by the budget open on the thread.
+	 *
+	 * @author carlos.cadena
+	 * @param timeout the timeout requested
+	 * @return the duration
+	 */
+	public static Duration clamp(Duration timeout) {
+		WaitBudget budget = current.get();
+		if (budget == null) {
+			return timeout;
+		}
+		Duration remaining = budget.remaining();
+		return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+	}
+
+	/**
+	 * Gets the remaining time of the budget.
+	 *
+	 * @author carlos.cadena
+	 * @return the duration
+	 */
+	public Duration remaining() {
+		long remaining = deadline - System.nanoTime();
+		return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+	}
+
+	/**
+	 * Checks if the budget has been consumed.
+	 *
+	 * @author carlos.cadena
+	 * @return true, if is expired
+	 */
+	public boolean isExpired() {
+		return deadline - System.nanoTime() <= 0;
+	}
+
+	/**
+	 * Closes the budget, the outer one becomes the current budget again.
+	 *
+	 * @author carlos.cadena
+	 */
+	@Override
+	public void close() {
+		if (outer != null) {
+			current.set(outer);
+		} else {
+			current.remove();
+		}
+	}
+}
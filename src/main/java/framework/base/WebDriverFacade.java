@@ -3,6 +3,7 @@ package framework.base;
 
 import com.google.common.collect.ImmutableMap;
 import framework.report.Log;
+import framework.test.DeviceAllocator;
 import framework.test.TestUtils.Browser;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
@@ -156,9 +157,9 @@ public class WebDriverFacade {
 
 
         // Launch remote browser and set it as the current thread
-        webDriver.set(new RemoteWebDriver(
-                new URL("https://" + username + ":" + accesskey + "@ondemand.saucelabs.com/wd/hub"),
-                capabilities));
+        URL url = new URL("https://" + username + ":" + accesskey + "@ondemand.saucelabs.com/wd/hub");
+        webDriver.set(SessionAdmission.admit(url, () -> CommandMetrics.isEnabled()
+                ? new RemoteWebDriver(new TimedHttpCommandExecutor(url), capabilities) : new RemoteWebDriver(url, capabilities)));
 
         // set current sessionId
         String id = ((RemoteWebDriver) getDriver()).getSessionId().toString();
@@ -209,12 +210,14 @@ public class WebDriverFacade {
         }
         if(cap.getPlatform().equals(Platform.ANDROID)) {
         	isAndroidExecution.set(true);
-        	AndroidDriver<WebElement> driver = new AndroidDriver<WebElement>(url,cap);
+        	AndroidDriver<WebElement> driver = SessionAdmission.admit(url, () -> CommandMetrics.isEnabled()
+        			? new AndroidDriver<WebElement>(new TimedCommandExecutor(url),cap) : new AndroidDriver<WebElement>(url,cap));
             webDriver.set(driver);
         }
         if(cap.getPlatform().equals(Platform.IOS)) {
         	isAndroidExecution.set(false);
-        	IOSDriver<WebElement> driver = new IOSDriver<WebElement>(url,cap);
+        	IOSDriver<WebElement> driver = SessionAdmission.admit(url, () -> CommandMetrics.isEnabled()
+        			? new IOSDriver<WebElement>(new TimedCommandExecutor(url),cap) : new IOSDriver<WebElement>(url,cap));
             webDriver.set(driver);
         }
     }
@@ -324,8 +327,11 @@ public class WebDriverFacade {
      * @throws IllegalAccessException the illegal access exception
      */
     public static <T extends WebBasePage> T navigateTo(Class<T> page, String url) throws InstantiationException, IllegalAccessException{
+    	long start = System.nanoTime();
     	getDriver().get(url);
-    	return page.newInstance();
+    	T instance = page.newInstance();
+    	PerformanceUtils.recordSince(PerformanceUtils.PAGE_LOAD, start);
+    	return instance;
     }
     
     /**
@@ -383,6 +389,9 @@ public class WebDriverFacade {
     		System.out.println(" Issue closing driver, trying re retry..." +  e.getMessage());
             getDriver().quit();
     	}
+    	finally {
+    		DeviceAllocator.release(getDriver());
+    	}
     }
 
     //endregion
@@ -524,6 +533,27 @@ public class WebDriverFacade {
 			return element.getText();
 		}
 	}
+
+	/**
+	 * Gets the texts of a list of elements with a single script.
+	 *
+	 * @param elements the elements
+	 * @return the texts
+	 */
+	public static List<String> getElementsText(List<WebElement> elements) {
+		return Utils.getElementsText(getDriver(), elements);
+	}
+
+	/**
+	 * Gets an attribute of a list of elements with a single script.
+	 *
+	 * @param elements the elements
+	 * @param attribute the attribute
+	 * @return the attribute values
+	 */
+	public static List<String> getElementsAttribute(List<WebElement> elements, String attribute) {
+		return Utils.getElementsAttribute(getDriver(), elements, attribute);
+	}
 	
 	/**
 	 * Checks if is element present.
@@ -746,15 +776,13 @@ public class WebDriverFacade {
 	 * @return the web element
 	 */
 	public static WebElement findFirstVisibleElement(List<By> locators, int timeout) {
-		Optional<By> result = locators.stream().filter(locator -> WebDriverFacade.isElementVisible(locator, timeout))
-				.findFirst();
-		if (result.isPresent()) {
-			Log.logger.debug("visible locator found -> " + result.get().toString());
-			return WebDriverFacade.findElement(result.get());
+		WebElement result = Utils.findFirstMatchingElement(getDriver(), locators, WebElement::isDisplayed, timeout);
+		if (result != null) {
+			return result;
 		} else {
 			throw new NoSuchElementException("No visible element was found with the locators provided, check..");
 		}
-		}
+	}
 
 
 	/**
@@ -11,7 +11,6 @@ import io.appium.java_client.android.nativekey.KeyEvent;
 import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.*;
 import org.openqa.selenium.remote.Augmenter;
-import org.openqa.selenium.support.ui.FluentWait;
 
 import java.io.File;
 import java.io.IOException;
@@ -265,7 +264,7 @@ public class WebDriverUtils {
 	 */
 	public static <T extends WebElement> boolean switchToContext(AppiumDriver driver, String contextName, int timeout) {
 		try {
-			return new FluentWait<WebDriver>(driver).withTimeout(Duration.ofSeconds(timeout))
+			return Utils.newWait(driver, timeout)
 					.ignoring(WebDriverException.class)
 					.until(new Function<WebDriver, Boolean>() {
 						public Boolean apply(WebDriver arg) {
@@ -286,7 +285,7 @@ public class WebDriverUtils {
 	 */
 	public static <T extends WebElement> boolean switchToFirstWebContextFound(AppiumDriver driver, int timeout) {
 		try {
-			return new FluentWait<WebDriver>(driver).withTimeout(Duration.ofSeconds(timeout))
+			return Utils.newWait(driver, timeout)
 					.ignoring(WebDriverException.class).ignoring(java.util.NoSuchElementException.class)
 					.until(new Function<WebDriver, Boolean>() {
 						Set<String> contexts =driver.getContextHandles();
@@ -74,6 +74,7 @@ public class Log {
      */
     public static void testStep(String message){
         logger.info(message);
+        Tracer.mark(message);
     }
 
     /**
@@ -85,6 +86,7 @@ public class Log {
      */
     public static void testStep(String message, String parameter){
         logger.info(String.format(message,parameter));
+        Tracer.mark(String.format(message,parameter));
     }
 
 
@@ -0,0 +1,127 @@
+package framework.report;
+
+import framework.base.FrameworkConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The LogAggregator class which merges the .log files of each test into the runner output of the report.
+ * Each log is compressed whole next to the report, only its last lines go into the runner output with a
+ * link to the compressed file, and the runner output has a max size, so the memory used at the end of the
+ * suite does not grow with the number of tests executed.
+ *
+ * @author carlos.cadena
+ */
+public class LogAggregator {
+
+	/** The folder of the compressed logs, relative to the report folder. */
+	private static final String FOLDER = "logs";
+
+	/** The report folder. */
+	private static final String REPORT_FOLDER = "test-output";
+
+	/**
+	 * Merges the logs into the runner output.
+	 *
+	 * @author carlos.cadena
+	 * @param logs the log files
+	 * @return the runner output
+	 */
+	public static String aggregate(File[] logs) {
+		int excerptBytes = FrameworkConfig.get().getLogExcerptKb() * 1024;
+		int maxOutput = FrameworkConfig.get().getLogOutputKb() * 1024;
+		StringBuilder output = new StringBuilder();
+		Arrays.sort(logs, Comparator.comparing(File::getName));
+		for (File log : logs) {
+			try {
+				String link = compress(log.toPath());
+				output.append("<b>").append(log.getName()).append("</b> - <a href=\"").append(link)
+						.append("\">Log completo</a><br>").append(System.getProperty("line.separator"));
+				if (output.length() < maxOutput) {
+					output.append(readTail(log.toPath(), Math.min(excerptBytes, maxOutput - output.length())));
+				}
+			} catch (IOException e) {
+				Log.logger.debug("Log file '" + log.getName() + "' could not be added to the report -> " + e.getMessage());
+			}
+		}
+		return output.toString();
+	}
+
+	/**
+	 * Compresses the log next to the report.
+	 *
+	 * @author carlos.cadena
+	 * @param log the log
+	 * @return the path of the compressed log relative to the report
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static String compress(Path log) throws IOException {
+		Path compressed = Paths.get(REPORT_FOLDER, FOLDER, log.getFileName() + ".gz");
+		Files.createDirectories(compressed.getParent());
+		try (FileChannel source = FileChannel.open(log, StandardOpenOption.READ);
+			 OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(compressed), 64 * 1024);
+			 WritableByteChannel target = Channels.newChannel(gzip)) {
+			long position = 0;
+			long size = source.size();
+			while (position < size) {
+				position += source.transferTo(position, size - position, target);
+			}
+		}
+		return FOLDER + "/" + compressed.getFileName();
+	}
+
+	/**
+	 * Reads the last bytes of the log, cut on a line start, as html lines.
+	 *
+	 * @author carlos.cadena
+	 * @param log the log
+	 * @param maxBytes the max bytes
+	 * @return the html lines
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static String readTail(Path log, int maxBytes) throws IOException {
+		try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+			long start = Math.max(0, channel.size() - maxBytes);
+			ByteBuffer buffer = ByteBuffer.allocate((int) (channel.size() - start));
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, start + buffer.position()) < 0) {
+					break;
+				}
+			}
+			buffer.flip();
+			CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+					.onMalformedInput(CodingErrorAction.IGNORE).onUnmappableCharacter(CodingErrorAction.IGNORE);
+			CharBuffer text = decoder.decode(buffer);
+			StringBuilder lines = new StringBuilder();
+			int from = 0;
+			if (start > 0) {
+				lines.append("...<br>").append(System.getProperty("line.separator"));
+				while (from < text.length() && text.charAt(from) != '\n') {
+					from++;
+				}
+				from++;
+			}
+			for (String line : text.subSequence(Math.min(from, text.length()), text.length()).toString().split("\r?\n")) {
+				lines.append(line).append(System.getProperty("line.separator")).append("<br>");
+			}
+			return lines.toString();
+		}
+	}
+}
@@ -5,23 +5,26 @@ import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentHtmlReporter;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfWriter;
+import framework.base.AdaptiveWait;
+import framework.base.CommandMetrics;
 import framework.base.FrameworkProperties;
 import framework.base.PerformanceUtils;
 import framework.test.ExecutionRecovery;
 import framework.test.TestBase;
-import framework.test.TestUtils;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.testng.*;
 import org.testng.annotations.Test;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -37,17 +40,31 @@ import java.util.regex.Pattern;
  * 
  */
 public class ReportListener implements ITestListener, ISuiteListener{
+	/** The image labels of the report, the text of the span is replaced. */
+	private static final Pattern IMAGE_LABEL = Pattern.compile(
+			"(<span[^>]*class=[\"'][^\"']*label grey white-text[^\"']*[\"'][^>]*>)[^<]*(</span>)");
+
+	/** The report labels of the performance metrics. */
+	private static final Map<String, String> METRIC_LABELS = new HashMap<>();
+
+	static {
+		METRIC_LABELS.put(PerformanceUtils.APP_ACTIVATION, "Inicio APP");
+		METRIC_LABELS.put(PerformanceUtils.SESSION_CREATION, "Creacion Sesion");
+		METRIC_LABELS.put(PerformanceUtils.PAGE_LOAD, "Carga Pagina");
+		METRIC_LABELS.put(PerformanceUtils.GESTURE, "Gestos");
+	}
+
 	/** The extent. */
 	private ExtentReports extent;
 	
 	/** The num passed. */
-	private int numPassed;
+	private final LongAdder numPassed = new LongAdder();
 	
 	/** The num failed. */
-	private int numFailed;
+	private final LongAdder numFailed = new LongAdder();
 	
 	/** The num skipped. */
-	private int numSkipped;
+	private final LongAdder numSkipped = new LongAdder();
 	
 	/** The parent test. */
 	private static ExtentTest parentTest;
@@ -64,7 +81,7 @@ public class ReportListener implements ITestListener, ISuiteListener{
 	 * @see org.testng.ITestListener#onStart(org.testng.ITestContext)
 	 */
 	@Override
-	public synchronized void onStart(ITestContext context) {
+	public void onStart(ITestContext context) {
 		boolean createTestRecord = false;
         Optional<ITestNGMethod> methodFound = Arrays.stream(context.getAllTestMethods())
 				.filter(method ->  method.getInstance().toString()
@@ -91,7 +108,10 @@ public class ReportListener implements ITestListener, ISuiteListener{
 		}
 		}
 		if (createTestRecord) {
-			ExtentTest child = parentTest.createNode(context.getName());
+			ExtentTest child;
+			synchronized (parentTest) {
+				child = parentTest.createNode(context.getName());
+			}
 			TestBase.setReport(child);
 		}
 		}
@@ -101,7 +121,7 @@ public class ReportListener implements ITestListener, ISuiteListener{
 	 * @see org.testng.ITestListener#onFinish(org.testng.ITestContext)
 	 */
 	@Override
-	public synchronized void onFinish(ITestContext context) {
+	public void onFinish(ITestContext context) {
 
 	}
 
@@ -109,16 +129,16 @@ public class ReportListener implements ITestListener, ISuiteListener{
 	 * @see org.testng.ITestListener#onTestStart(org.testng.ITestResult)
 	 */
 	@Override
-	public synchronized void onTestStart(ITestResult result) {
+	public void onTestStart(ITestResult result) {
 	}
 
 	/* (non-Javadoc)
 	 * @see org.testng.ITestListener#onTestSuccess(org.testng.ITestResult)
 	 */
 	@Override
-	public synchronized void onTestSuccess(ITestResult result) {
+	public void onTestSuccess(ITestResult result) {
 		String message = "Test finalizado OK";
-		numPassed++;
+		numPassed.increment();
 		TestBase.getReport().pass(message);
 	}
 
@@ -126,25 +146,27 @@ public class ReportListener implements ITestListener, ISuiteListener{
 	 * @see org.testng.ITestListener#onTestFailure(org.testng.ITestResult)
 	 */
 	@Override
-	public synchronized void onTestFailure(ITestResult result) {
-		numFailed++;
+	public void onTestFailure(ITestResult result) {
+		numFailed.increment();
 	}
 
 	/* (non-Javadoc)
 	 * @see org.testng.ITestListener#onTestFailedButWithinSuccessPercentage(org.testng.ITestResult)
 	 */
 	@Override
-	public synchronized void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+	public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
 	}
 
 	/* (non-Javadoc)
 	 * @see org.testng.ITestListener#onTestSkipped(org.testng.ITestResult)
 	 */
 	@Override
-	public synchronized void onTestSkipped(ITestResult result) {
+	public void onTestSkipped(ITestResult result) {
 		ExecutionRecovery recovery = (ExecutionRecovery) (result.getMethod().getRetryAnalyzer(result));
 		if (recovery.retryWasCalled() && recovery.getRetryCount() > 0) {
-			extent.removeTest(TestBase.getReport());
+			synchronized (parentTest) {
+				extent.removeTest(TestBase.getReport());
+			}
 		}
 	}
 	
@@ -210,9 +232,9 @@ public class ReportListener implements ITestListener, ISuiteListener{
 		}
 		extent.setSystemInfo("Aplicacion", !FrameworkProperties.getLocal().equalsIgnoreCase("true") ? FrameworkProperties.getApp() : "Local");
 		parentTest = extent.createTest(suite.getName());
-		numPassed=0;
-		numFailed=0;
-		numSkipped=0;
+		numPassed.reset();
+		numFailed.reset();
+		numSkipped.reset();
 	}
 
 	/**
@@ -230,8 +252,8 @@ public class ReportListener implements ITestListener, ISuiteListener{
 			File dir = new File(".");
             File[] files = dir.listFiles((dir1, name) -> name.endsWith(".log"));
             assert files != null;
+            results.append(LogAggregator.aggregate(files));
             for (File file : files) {
-                results.append(TestUtils.readFile(file, true));
 				file.deleteOnExit();
 			}
 			if(FrameworkProperties.getConfluenceReport().equalsIgnoreCase("true"))this.setConfluenceResume(suite);
@@ -240,36 +262,85 @@ public class ReportListener implements ITestListener, ISuiteListener{
 		} catch (IOException | DocumentException x) {
             x.printStackTrace();
 		}
-        if(PerformanceUtils.getTimeAverageInSeconds() != 0.0)
-            extent.setSystemInfo("T.P. Inicio APP", String.valueOf(PerformanceUtils.getTimeAverageInSeconds()).replace(".", ",") + " Segundos");
+        this.setPerformanceInfo();
+        if(AdaptiveWait.getWaits() != 0)
+            extent.setSystemInfo("Esperas", AdaptiveWait.getWaits() + " (" + String.format("%.1f", (double) AdaptiveWait.getPolls() / AdaptiveWait.getWaits()).replace(".", ",") + " sondeos de media)");
         extent.setTestRunnerOutput(results.toString());
+		ScreenshotPipeline.drain();
 		extent.flush();
 		this.modifyHtmlImageNames();
+		if(FrameworkProperties.getReportArchive().equalsIgnoreCase("True")) {
+			try {
+				ScreenshotStore.archive(((ExtentHtmlReporter) extent.getStartedReporters().get(0)).config().getFilePath());
+			} catch (IOException x) {
+				x.printStackTrace();
+			}
+		}
 		if(FrameworkProperties.getRallyLogResults().equalsIgnoreCase("True")) {
 		countTests(suite);
 		}
 
     }
 
+	/**
+	 * Sets on the report the percentiles of every performance metric recorded and the slowest driver commands,
+	 * and exports both as JSON.
+	 *
+	 * @author carlos.cadena
+	 */
+	private void setPerformanceInfo() {
+		PerformanceUtils.getMetrics().forEach((metric, histogram) -> {
+			if (histogram.getCount() != 0) {
+				extent.setSystemInfo("T.P. " + METRIC_LABELS.getOrDefault(metric, metric),
+						String.format("p50 %s - p90 %s - p99 %s - max %s Segundos (%d)", toSeconds(histogram.getPercentile(50)),
+								toSeconds(histogram.getPercentile(90)), toSeconds(histogram.getPercentile(99)),
+								toSeconds(histogram.getMax()), histogram.getCount()));
+			}
+		});
+		Collection<String> slowestCommands = CommandMetrics.getSlowestForSuite(10);
+		if (!slowestCommands.isEmpty()) {
+			extent.setSystemInfo("Comandos mas lentos", String.join("<br>", slowestCommands));
+		}
+		try {
+			PerformanceUtils.exportJson(new File("test-output/performance.json"));
+			CommandMetrics.exportJson(new File("test-output/commands.json"));
+		} catch (IOException x) {
+			x.printStackTrace();
+		}
+	}
+
+	/**
+	 * Formats milliseconds as seconds with decimal comma.
+	 *
+	 * @author carlos.cadena
+	 * @param millis the millis
+	 * @return the seconds
+	 */
+	private static String toSeconds(long millis) {
+		return String.format("%.2f", millis / 1000.0).replace(".", ",");
+	}
+
 	/**
 	 * This private method modifies the label "base-64" on report since MediaEntityBuilder class on Extent Reports
-	 * does not have a function to do so when you want to encode in base64 the screenshot image.
+	 * does not have a function to do so when you want to encode in base64 the screenshot image. The report is
+	 * rewritten line by line into a temporary file so it is never loaded whole in memory.
 	 *
 	 * @author carlos.cadena
 	 */
 	private void modifyHtmlImageNames() {
 		try {
 			ExtentHtmlReporter htmlReporter = (ExtentHtmlReporter) extent.getStartedReporters().get(0);
-			String path = htmlReporter.config().getFilePath();
-			File reportFile = new File(path);
-			Document doc = Jsoup.parse(reportFile, "UTF-8", "");
-			Elements imageLabels = doc.select("span[class*='label grey white-text']");
-			for (Element x : imageLabels) {
-				x.text("image");
+			Path report = Paths.get(htmlReporter.config().getFilePath());
+			Path modified = Files.createTempFile(report.toAbsolutePath().getParent(), "report", ".html");
+			try (BufferedReader reader = Files.newBufferedReader(report, StandardCharsets.UTF_8);
+				 BufferedWriter writer = Files.newBufferedWriter(modified, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					writer.write(line.contains("white-text") ? IMAGE_LABEL.matcher(line).replaceAll("$1image$2") : line);
+					writer.newLine();
+				}
 			}
-			BufferedWriter writer = new BufferedWriter(new FileWriter(path));
-			writer.write(doc.outerHtml());
-			writer.close();
+			Files.move(modified, report, StandardCopyOption.REPLACE_EXISTING);
 
 		} catch (IOException x) {
             x.printStackTrace();
@@ -287,7 +358,9 @@ public class ReportListener implements ITestListener, ISuiteListener{
 	private void setResumePDF(ISuite suite) throws IOException, DocumentException {
         // Get the total of the executed tests
 		int totalTest= suite.getAllMethods().size();
-	    int numSkipped = totalTest - numFailed - numPassed;
+	    long numPassed = this.numPassed.sum();
+	    long numFailed = this.numFailed.sum();
+	    long numSkipped = totalTest - numFailed - numPassed;
         // Create the PDF document
         com.itextpdf.text.Document document = new com.itextpdf.text.Document();
         FileOutputStream pdfFile = new FileOutputStream("test-output/ResultadoPruebasResumen.pdf", false);
@@ -369,10 +442,10 @@ public class ReportListener implements ITestListener, ISuiteListener{
                 + "<li style='margin-left: 3em'><b> Dispositivo: </b>" + FrameworkProperties.getDeviceName() + "</li>"
                 + "<li style='margin-left: 3em'><b> Aplicacion: </b>" + FrameworkProperties.getApp() + "</li>"
 				+ "<ul><b>Resultados:</b>"
-				+ "<li style='margin-left: 3em'><b> Numero de pruebas Ejecutadas: </b>" + (numFailed + numPassed + numSkipped) + "</li>"
-				+ "<li style='margin-left: 3em'><b> Numero de Pruebas Exitosas: </b>" + numPassed + "</li>"
-                + "<li style='margin-left: 3em'><b> Numero de pruebas Fallidas: </b>" + numFailed + "</li>"
-                + "<li style='margin-left: 3em'><b> Numero de Pruebas Omitidas: </b>" + numSkipped + "</li></ul>";
+				+ "<li style='margin-left: 3em'><b> Numero de pruebas Ejecutadas: </b>" + (numFailed.sum() + numPassed.sum() + numSkipped.sum()) + "</li>"
+				+ "<li style='margin-left: 3em'><b> Numero de Pruebas Exitosas: </b>" + numPassed.sum() + "</li>"
+                + "<li style='margin-left: 3em'><b> Numero de pruebas Fallidas: </b>" + numFailed.sum() + "</li>"
+                + "<li style='margin-left: 3em'><b> Numero de Pruebas Omitidas: </b>" + numSkipped.sum() + "</li></ul>";
 
 		RestAssured.baseURI = "confluence_url_here";
 		Response res = RestAssured.given().auth().preemptive().basic("xxxxxxxxx", "xxxxxxx")
@@ -0,0 +1,163 @@
+package framework.report;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.MediaEntityModelProvider;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Media;
+import framework.base.FrameworkConfig;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Augmenter;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ScreenshotPipeline class which takes the screenshots straight into memory on the test thread and
+ * leaves the downscaling, encoding, storing and saving to a bounded background executor, so test teardown
+ * does not wait on file I/O. The report entries are logged on the test thread and their images are filled
+ * before the report is flushed. When the executor is full the test thread does the work.
+ *
+ * @author carlos.cadena
+ */
+public class ScreenshotPipeline {
+
+	/** The max width of the screenshots, 0 to keep the original size. */
+	private static final int MAX_WIDTH = FrameworkConfig.get().getScreenshotMaxWidth();
+
+	/** The store flag, screenshots are saved on the screenshot store instead of embedded in the report. */
+	private static final boolean STORE = FrameworkConfig.get().isScreenshotStore();
+
+	/** The executor processing the screenshots. */
+	private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			FrameworkConfig.get().getParallel(), FrameworkConfig.get().getParallel(),
+			30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(64), runnable -> {
+				Thread thread = new Thread(runnable, "screenshot-pipeline");
+				thread.setDaemon(true);
+				return thread;
+			}, new ThreadPoolExecutor.CallerRunsPolicy());
+
+	/** The image of a report entry whose screenshot is still being processed. */
+	private static final String PENDING = "";
+
+	/** The screenshots still being processed. */
+	private static final Queue<Future<?>> pending = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Takes a screenshot and logs it on the test report. The report entry is added right away on the
+	 * calling thread, so it keeps its place among the other entries of the test, and its image is filled
+	 * once the screenshot has been processed.
+	 *
+	 * @author carlos.cadena
+	 * @param driver the driver
+	 * @param test the test report
+	 * @param status the status of the report entry
+	 * @param details the details of the report entry
+	 * @param savePath the path where the screenshot is saved, or null to keep it only on the report
+	 * @return the size of the screenshot in bytes
+	 */
+	public static int capture(WebDriver driver, ExtentTest test, Status status, String details, String savePath) {
+		byte[] bytes = ((TakesScreenshot) new Augmenter().augment(driver)).getScreenshotAs(OutputType.BYTES);
+		MediaEntityModelProvider media;
+		try {
+			media = (STORE ? MediaEntityBuilder.createScreenCaptureFromPath(PENDING)
+					: MediaEntityBuilder.createScreenCaptureFromBase64String(PENDING)).build();
+		} catch (IOException e) {
+			test.log(status, details);
+			test.info("There was an error capturing screenshot > " + e.getMessage());
+			return bytes.length;
+		}
+		test.log(status, details, media);
+		Media image = media.getMedia();
+		pending.add(executor.submit(() -> process(bytes, image, savePath)));
+		return bytes.length;
+	}
+
+	/**
+	 * Waits for all the screenshots being processed, should be called before flushing the report.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void drain() {
+		Future<?> screenshot;
+		while ((screenshot = pending.poll()) != null) {
+			try {
+				screenshot.get();
+			} catch (ExecutionException e) {
+				Log.logger.debug("Screenshot could not be processed -> " + e.getCause().getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Downscales, saves and encodes a screenshot, filling the image of its report entry. The report entry
+	 * is never written from here, since the test thread may still be logging on it.
+	 *
+	 * @author carlos.cadena
+	 * @param bytes the bytes
+	 * @param media the image of the report entry
+	 * @param savePath the save path
+	 */
+	private static void process(byte[] bytes, Media media, String savePath) {
+		try {
+			byte[] image = downscale(bytes);
+			if (savePath != null) {
+				Files.write(new File(savePath).toPath(), image);
+			}
+			if (STORE) {
+				media.setPath(ScreenshotStore.store(image));
+			} else {
+				media.setBase64String(Base64.getEncoder().encodeToString(image));
+			}
+		} catch (IOException | RuntimeException e) {
+			Log.logger.debug("Screenshot could not be processed, the report entry is kept without it -> " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Downscales the screenshot to the max width configured, keeping the aspect ratio.
+	 *
+	 * @author carlos.cadena
+	 * @param bytes the bytes
+	 * @return the bytes of the downscaled image, or the same bytes if no downscaling is needed
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static byte[] downscale(byte[] bytes) throws IOException {
+		if (MAX_WIDTH <= 0) {
+			return bytes;
+		}
+		BufferedImage original = ImageIO.read(new ByteArrayInputStream(bytes));
+		if (original == null || original.getWidth() <= MAX_WIDTH) {
+			return bytes;
+		}
+		int height = original.getHeight() * MAX_WIDTH / original.getWidth();
+		BufferedImage scaled = new BufferedImage(MAX_WIDTH, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = scaled.createGraphics();
+		graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		graphics.drawImage(original, 0, 0, MAX_WIDTH, height, null);
+		graphics.dispose();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ImageIO.write(scaled, "png", output);
+		return output.toByteArray();
+	}
+}
@@ -0,0 +1,107 @@
+package framework.report;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * The ScreenshotStore class which saves the report screenshots next to the report, named by the SHA-256
+ * of their content. Identical screenshots (the same error dialog on several tests) are written only once
+ * and the report references them by relative path instead of embedding them in Base64.
+ *
+ * @author carlos.cadena
+ */
+public class ScreenshotStore {
+
+	/** The folder of the screenshots, relative to the report folder. */
+	private static final String FOLDER = "screenshots";
+
+	/** The report folder. */
+	private static final String REPORT_FOLDER = "test-output";
+
+	/** The hex digits. */
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/** The screenshots already stored during the run. */
+	private static final Set<String> stored = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Stores a screenshot if it was not stored before.
+	 *
+	 * @author carlos.cadena
+	 * @param image the image
+	 * @return the path of the screenshot relative to the report
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static String store(byte[] image) throws IOException {
+		String name = hash(image) + ".png";
+		if (stored.add(name)) {
+			Path file = Paths.get(REPORT_FOLDER, FOLDER, name);
+			Files.createDirectories(file.getParent());
+			try {
+				Files.write(file, image, StandardOpenOption.CREATE_NEW);
+			} catch (FileAlreadyExistsException e) {
+				Log.logger.trace("Screenshot '" + name + "' already stored");
+			} catch (IOException e) {
+				stored.remove(name);
+				throw e;
+			}
+		}
+		return FOLDER + "/" + name;
+	}
+
+	/**
+	 * Packs the report and the screenshots stored during the run in a zip file next to the report.
+	 *
+	 * @author carlos.cadena
+	 * @param reportPath the report path
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static void archive(String reportPath) throws IOException {
+		File report = new File(reportPath);
+		File archive = new File(report.getParentFile(), report.getName().replaceAll("\\.html$", "") + ".zip");
+		try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+			zip.putNextEntry(new ZipEntry(report.getName()));
+			Files.copy(report.toPath(), zip);
+			zip.closeEntry();
+			for (String name : stored) {
+				zip.putNextEntry(new ZipEntry(FOLDER + "/" + name));
+				Files.copy(Paths.get(REPORT_FOLDER, FOLDER, name), zip);
+				zip.closeEntry();
+			}
+		}
+		Log.logger.info("Report archived on '" + archive.getPath() + "' with " + stored.size() + " screenshots");
+	}
+
+	/**
+	 * Gets the SHA-256 of the image in hex.
+	 *
+	 * @author carlos.cadena
+	 * @param image the image
+	 * @return the hash
+	 */
+	private static String hash(byte[] image) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(image);
+			char[] hex = new char[digest.length * 2];
+			for (int i = 0; i < digest.length; i++) {
+				hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+				hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+			}
+			return new String(hex);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package framework.report;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import framework.base.FrameworkProperties;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Tracer class which records the timeline of each test as nested spans (page object methods, waits,
+ * swipes, driver commands...) and exports it, when the test finishes, as a Chrome trace-event file on
+ * test-output/traces that can be opened on chrome://tracing or https://ui.perfetto.dev. The file is named
+ * after the class, the test and its start, so retries and tests with the same name keep their own trace.
+ *
+ * <pre>
+ * try (Tracer.Span span = Tracer.span("Login")) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author carlos.cadena
+ */
+public class Tracer {
+
+	/** The folder of the traces. */
+	private static final String FOLDER = "test-output/traces";
+
+	/** The enabled flag. */
+	private static final boolean ENABLED = FrameworkProperties.getTraceEnabled().equalsIgnoreCase("true");
+
+	/** The span returned when tracing is disabled or no test is being traced. */
+	private static final Span NOOP = new Span(null, null, 0);
+
+	/** The trace of the test running on each thread. */
+	private static final ThreadLocal<Trace> current = new ThreadLocal<>();
+
+	/**
+	 * Starts the trace of a test on the current thread.
+	 *
+	 * @author carlos.cadena
+	 * @param testClass the test class
+	 * @param testName the test name
+	 */
+	public static void startTest(String testClass, String testName) {
+		if (ENABLED) {
+			Trace trace = new Trace(testClass, testName);
+			current.set(trace);
+			trace.open.push(new Span(trace, testName, System.nanoTime()));
+		}
+	}
+
+	/**
+	 * Ends the trace of the test of the current thread and writes it.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void endTest() {
+		Trace trace = current.get();
+		if (trace == null) {
+			return;
+		}
+		while (!trace.open.isEmpty()) {
+			trace.open.peek().close();
+		}
+		current.remove();
+		String fileName = trace.testClass + "_" + trace.testName + "_" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(trace.start);
+		File file = new File(FOLDER, fileName.replaceAll("[^\\w.-]", "_") + ".json");
+		try {
+			file.getParentFile().mkdirs();
+			new ObjectMapper().writeValue(file, Collections.singletonMap("traceEvents", trace.events));
+		} catch (IOException e) {
+			Log.logger.debug("Trace of '" + trace.testName + "' could not be written -> " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Opens a span on the current thread, it must be closed when the step finishes.
+	 *
+	 * @author carlos.cadena
+	 * @param name the name
+	 * @return the span
+	 */
+	public static Span span(String name) {
+		Trace trace = current.get();
+		if (trace == null) {
+			return NOOP;
+		}
+		Span span = new Span(trace, name, System.nanoTime());
+		trace.open.push(span);
+		return span;
+	}
+
+	/**
+	 * Records a span that has already finished, as a driver command.
+	 *
+	 * @author carlos.cadena
+	 * @param name the name
+	 * @param category the category
+	 * @param startNanos the start in nanoseconds
+	 * @param nanos the duration in nanoseconds
+	 */
+	public static void record(String name, String category, long startNanos, long nanos) {
+		Trace trace = current.get();
+		if (trace != null) {
+			trace.add(name, category, "X", startNanos, nanos);
+		}
+	}
+
+	/**
+	 * Records an instant event, as a test step.
+	 *
+	 * @author carlos.cadena
+	 * @param name the name
+	 */
+	public static void mark(String name) {
+		Trace trace = current.get();
+		if (trace != null) {
+			trace.add(name, "step", "i", System.nanoTime(), 0);
+		}
+	}
+
+	/**
+	 * The Trace class which holds the events of a test.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class Trace {
+
+		/** The test class. */
+		private final String testClass;
+
+		/** The test name. */
+		private final String testName;
+
+		/** The start. */
+		private final Date start = new Date();
+
+		/** The thread id. */
+		private final long threadId = Thread.currentThread().getId();
+
+		/** The events. */
+		private final List<Map<String, Object>> events = new ArrayList<>();
+
+		/** The open spans. */
+		private final Deque<Span> open = new ArrayDeque<>();
+
+		/**
+		 * Instantiates a new trace.
+		 *
+		 * @author carlos.cadena
+		 * @param testClass the test class
+		 * @param testName the test name
+		 */
+		private Trace(String testClass, String testName) {
+			this.testClass = testClass;
+			this.testName = testName;
+		}
+
+		/**
+		 * Adds an event.
+		 *
+		 * @author carlos.cadena
+		 * @param name the name
+		 * @param category the category
+		 * @param phase the phase, X for complete events and i for instant ones
+		 * @param startNanos the start in nanoseconds
+		 * @param nanos the duration in nanoseconds
+		 */
+		private void add(String name, String category, String phase, long startNanos, long nanos) {
+			Map<String, Object> event = new LinkedHashMap<>();
+			event.put("name", name);
+			event.put("cat", category);
+			event.put("ph", phase);
+			event.put("ts", startNanos / 1000);
+			if (phase.equals("X")) {
+				event.put("dur", nanos / 1000);
+			} else {
+				event.put("s", "t");
+			}
+			event.put("pid", 1);
+			event.put("tid", threadId);
+			events.add(event);
+		}
+	}
+
+	/**
+	 * The Span class which is a step of the timeline of a test.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static class Span implements AutoCloseable {
+
+		/** The trace. */
+		private final Trace trace;
+
+		/** The name. */
+		private final String name;
+
+		/** The start in nanoseconds. */
+		private final long start;
+
+		/**
+		 * Instantiates a new span.
+		 *
+		 * @author carlos.cadena
+		 * @param trace the trace
+		 * @param name the name
+		 * @param start the start
+		 */
+		private Span(Trace trace, String name, long start) {
+			this.trace = trace;
+			this.name = name;
+			this.start = start;
+		}
+
+		/**
+		 * Closes the span and the spans opened inside it that were not closed.
+		 *
+		 * @author carlos.cadena
+		 */
+		@Override
+		public void close() {
+			if (trace == null || !trace.open.contains(this)) {
+				return;
+			}
+			Span span;
+			do {
+				span = trace.open.pop();
+				trace.add(span.name, "span", "X", span.start, System.nanoTime() - span.start);
+			} while (span != this);
+		}
+	}
+}
@@ -1,8 +1,6 @@
 package framework.test;
 
 import framework.base.FrameworkProperties;
-import io.restassured.RestAssured;
-import io.restassured.response.Response;
 import org.testng.TestNG;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlSuite;
@@ -20,6 +18,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -29,12 +28,12 @@ public class AllDevicesExecutor{
 	
 	
 	/** The queue. */
-	private List<HashMap<String,String>> listOfDevicesUS;
-	private List<HashMap<String,String>> listOfDevicesEU;
+	private List<Map<String,String>> listOfDevicesUS;
+	private List<Map<String,String>> listOfDevicesEU;
 	
 	public AllDevicesExecutor(){
-		listOfDevicesUS = new ArrayList<HashMap<String,String>>();
-		listOfDevicesEU = new ArrayList<HashMap<String,String>>();
+		listOfDevicesUS = new ArrayList<Map<String,String>>();
+		listOfDevicesEU = new ArrayList<Map<String,String>>();
 
 	}
 	
@@ -42,14 +41,11 @@ public class AllDevicesExecutor{
 	 * Start queue with all devices.
 	 */
 	public void startQueueWithAllDevices(boolean usAndEu) {
-		RestAssured.baseURI = "https://app.testobject.com/api/rest/v2/devices";
-		Response res = RestAssured.given().auth().preemptive()
-				.basic("guillermomartin", FrameworkProperties.getTestObjectId(FrameworkProperties.getApp())).get();
-		List<HashMap<String,String>> list = res.jsonPath().getList("EU.findAll { it.os == '"+ FrameworkProperties.getPlatformName().toUpperCase() +"'}");
-		List<HashMap<String,String>> list2 = res.jsonPath().getList("US.findAll { it.os == '"+ FrameworkProperties.getPlatformName().toUpperCase() +"'}");
+		List<Map<String,String>> list = DeviceCatalog.getDevices("EU", FrameworkProperties.getPlatformName());
+		List<Map<String,String>> list2 = DeviceCatalog.getDevices("US", FrameworkProperties.getPlatformName());
 		listOfDevicesEU.addAll(list);
 		if(!usAndEu) {
-			List<HashMap<String, String>> missingOnes = list2.stream().filter(dev2 -> list.stream().noneMatch(
+			List<Map<String, String>> missingOnes = list2.stream().filter(dev2 -> list.stream().noneMatch(
 					dev1 -> dev1.get("name").toLowerCase().contentEquals(dev2.get("name").toLowerCase()) && dev1
 							.get("osVersion").toLowerCase().contentEquals(dev2.get("osVersion").toLowerCase())))
 					.collect(Collectors.toList());
@@ -116,7 +112,7 @@ public class AllDevicesExecutor{
 		
 		}
 	
-	private void prepareDeviceSuite(XmlSuite suite, List<HashMap<String,String>> list,  Element item, boolean eu) {
+	private void prepareDeviceSuite(XmlSuite suite, List<Map<String,String>> list,  Element item, boolean eu) {
 		list.stream().forEach(dev -> {
 			XmlTest testXML = new XmlTest(suite);
 			HashMap<String,String> execParams = new HashMap<String,String>();
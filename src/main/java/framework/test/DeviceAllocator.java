@@ -0,0 +1,287 @@
+package framework.test;
+
+import framework.base.FrameworkConfig;
+import framework.report.Log;
+import org.testng.SkipException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * The DeviceAllocator class which leases the available devices of the farm to the sessions created on them.
+ * A leased device is not handed out again until the session on it is quit, so parallel tests, and the
+ * sessions pre-warmed for them, do not pick the same device and fight for it when the session is created.
+ * The device is picked from the model with fewer devices in use, and then with fewer leases made, so the load
+ * is spread across models. When every device that matches is leased the caller waits for one to be released.
+ *
+ * @author carlos.cadena
+ */
+public class DeviceAllocator {
+
+	/** The time waited for a device to be released in milliseconds. */
+	private static final long LEASE_TIMEOUT = FrameworkConfig.get().getDeviceLeaseTimeout() * 1000L;
+
+	/** The time between checks of the available devices while waiting in milliseconds. */
+	private static final long CHECK_INTERVAL = 5000;
+
+	/** The lock of the leases. */
+	private static final Object lock = new Object();
+
+	/** The leases by device id. */
+	private static final Map<String, Lease> leases = new HashMap<>();
+
+	/** The leases made of each model. */
+	private static final Map<String, Integer> leasesByModel = new HashMap<>();
+
+	/** The device the next lease of the thread avoids, the one its last session failed on. */
+	private static final ThreadLocal<String> avoided = new ThreadLocal<>();
+
+	/**
+	 * Leases an available android device of the EU region, it must be attached to the session created on it
+	 * or released if the session could not be created.
+	 *
+	 * @author carlos.cadena
+	 * @param huawei the huawei flag
+	 * @param hms the huawei with HMS flag
+	 * @return the device id
+	 * @throws SkipException if there is no device for the filters or none was released on time
+	 */
+	public static String lease(boolean huawei, boolean hms) {
+		long deadline = System.currentTimeMillis() + LEASE_TIMEOUT;
+		String avoidedDevice = avoided.get();
+		avoided.remove();
+		while (true) {
+			Map<String, String> models = findDevices(huawei, hms);
+			if (models.isEmpty()) {
+				throw new SkipException("No devices were found, skipping test....");
+			}
+			if (models.size() > 1) {
+				models.remove(avoidedDevice);
+			}
+			synchronized (lock) {
+				String device = leaseFree(models);
+				if (device != null) {
+					return device;
+				}
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new SkipException("All the available devices are being used by other tests, skipping test....");
+				}
+				try {
+					lock.wait(Math.min(remaining, CHECK_INTERVAL));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new SkipException("Interrupted while waiting for a device, skipping test....");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Leases an available android device of the EU region without waiting, for sessions that are not needed
+	 * yet such as the pre-warmed ones. It must be attached to the session created on it or released if the
+	 * session could not be created.
+	 *
+	 * @author carlos.cadena
+	 * @param huawei the huawei flag
+	 * @param hms the huawei with HMS flag
+	 * @return the device id, null if there is no device free for the filters
+	 */
+	public static String tryLease(boolean huawei, boolean hms) {
+		Map<String, String> models = findDevices(huawei, hms);
+		synchronized (lock) {
+			return leaseFree(models);
+		}
+	}
+
+	/**
+	 * Attaches a leased device to the session created on it, the device is released when the session is.
+	 *
+	 * @author carlos.cadena
+	 * @param device the device id, nothing is done if null
+	 * @param session the session
+	 */
+	public static void attach(String device, Object session) {
+		if (device == null || session == null) {
+			return;
+		}
+		synchronized (lock) {
+			Lease lease = leases.get(device);
+			if (lease != null) {
+				lease.session = session;
+			}
+		}
+	}
+
+	/**
+	 * Releases a leased device, for sessions that could not be created on it.
+	 *
+	 * @author carlos.cadena
+	 * @param device the device id, nothing is done if null
+	 */
+	public static void release(String device) {
+		if (device == null) {
+			return;
+		}
+		synchronized (lock) {
+			if (leases.remove(device) != null) {
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Releases the device of a session, should be called when the session is quit.
+	 *
+	 * @author carlos.cadena
+	 * @param session the session, nothing is done if null or if it has no device leased
+	 */
+	public static void release(Object session) {
+		if (session == null) {
+			return;
+		}
+		synchronized (lock) {
+			if (leases.values().removeIf(lease -> lease.session == session)) {
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Keeps the device of a session from being leased again on the next lease of the current thread, so
+	 * the retry of a test whose session failed runs on another device when there is one.
+	 *
+	 * @author carlos.cadena
+	 * @param session the session, nothing is done if null or if it has no device leased
+	 */
+	public static void avoid(Object session) {
+		if (session == null) {
+			return;
+		}
+		synchronized (lock) {
+			leases.entrySet().stream().filter(entry -> entry.getValue().session == session).findFirst()
+					.ifPresent(entry -> avoided.set(entry.getKey()));
+		}
+	}
+
+	/**
+	 * Releases every device, should be called when the suite ends.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void releaseAll() {
+		synchronized (lock) {
+			leases.clear();
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Finds the available android devices that match the filters, with their models. It reads the device
+	 * catalog, so it must not be called holding the lock.
+	 *
+	 * @author carlos.cadena
+	 * @param huawei the huawei flag
+	 * @param hms the huawei with HMS flag
+	 * @return the models by device id
+	 */
+	private static Map<String, String> findDevices(boolean huawei, boolean hms) {
+		Set<String> huaweiHmsDevices = DeviceCatalog.getHmsDevices();
+		boolean phoneOnly = FrameworkConfig.get().isPhoneOnly();
+		Map<String, String> models = new LinkedHashMap<>();
+		DeviceCatalog.getAvailableDevices("EU").stream()
+				.filter(x -> !(x.contains("iPhone") || x.contains("iPad"))
+						&& (!phoneOnly || !x.contains("Tab") && !x.contains("MediaPad") && !x.contains("Google Pixel C"))
+						&& (!huawei || x.contains("Huawei") || x.contains("HUAWEI"))
+						&& (hms == huaweiHmsDevices.contains(x)))
+				.forEach(device -> models.put(device, getModel(device)));
+		return models;
+	}
+
+	/**
+	 * Leases one of the devices that are not leased, it must be called holding the lock.
+	 *
+	 * @author carlos.cadena
+	 * @param models the models by device id
+	 * @return the device id, null if every device is leased
+	 */
+	private static String leaseFree(Map<String, String> models) {
+		List<String> free = models.keySet().stream().filter(device -> !leases.containsKey(device))
+				.collect(Collectors.toList());
+		if (free.isEmpty()) {
+			return null;
+		}
+		String device = pick(free, models);
+		leases.put(device, new Lease(models.get(device)));
+		leasesByModel.merge(models.get(device), 1, Integer::sum);
+		Log.logger.debug("Device '" + device + "' leased");
+		return device;
+	}
+
+	/**
+	 * Picks the device of the model with fewer devices leased and then with fewer leases made, devices of
+	 * the same model are picked randomly.
+	 *
+	 * @author carlos.cadena
+	 * @param devices the free devices
+	 * @param models the models by device id
+	 * @return the device
+	 */
+	private static String pick(List<String> devices, Map<String, String> models) {
+		Map<String, Long> leasedByModel = leases.values().stream()
+				.collect(Collectors.groupingBy(lease -> lease.model, Collectors.counting()));
+		List<String> shuffled = new ArrayList<>(devices);
+		Collections.shuffle(shuffled, ThreadLocalRandom.current());
+		return shuffled.stream().min(Comparator
+				.comparing((String device) -> leasedByModel.getOrDefault(models.get(device), 0L))
+				.thenComparing(device -> leasesByModel.getOrDefault(models.get(device), 0))).get();
+	}
+
+	/**
+	 * Gets the model of a device from the catalog, the device id if it is not on the catalog.
+	 *
+	 * @author carlos.cadena
+	 * @param device the device id
+	 * @return the model
+	 */
+	private static String getModel(String device) {
+		Map<String, String> catalogDevice = DeviceCatalog.getDevice(device);
+		if (catalogDevice == null) {
+			return device;
+		}
+		String model = catalogDevice.get("modelNumber") != null ? catalogDevice.get("modelNumber") : catalogDevice.get("name");
+		return model != null ? model : device;
+	}
+
+	/**
+	 * The Lease class which is a leased device.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class Lease {
+
+		/** The model of the device. */
+		private final String model;
+
+		/** The session created on the device, null while it is being created. */
+		private Object session;
+
+		/**
+		 * Instantiates a new lease.
+		 *
+		 * @author carlos.cadena
+		 * @param model the model
+		 */
+		private Lease(String model) {
+			this.model = model;
+		}
+	}
+}
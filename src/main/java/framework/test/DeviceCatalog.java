@@ -0,0 +1,307 @@
+package framework.test;
+
+import framework.base.FrameworkConfig;
+import framework.base.FrameworkProperties;
+import framework.report.Log;
+import io.restassured.RestAssured;
+import io.restassured.path.json.JsonPath;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The DeviceCatalog class which keeps in memory the devices of the device farm and the ones available
+ * right now, indexed by id, name and OS, so device lookups done while setting up each test do not call
+ * the farm. Once the catalog is older than its time to live it keeps being served while a new one is
+ * loaded on background.
+ *
+ * @author carlos.cadena
+ */
+public class DeviceCatalog {
+
+	/** The url of the devices. */
+	private static final String DEVICES_URL = "https://app.testobject.com/api/rest/v2/devices";
+
+	/** The url of the available devices. */
+	private static final String AVAILABLE_DEVICES_URL = "https://app.testobject.com/api/rest/v2/devices/available";
+
+	/** The user of the farm api. */
+	private static final String USER = "guillermomartin";
+
+	/** The regions of the farm. */
+	private static final List<String> REGIONS = Arrays.asList("EU", "US");
+
+	/** The time to live of the catalog in milliseconds. */
+	private static final long TTL = FrameworkConfig.get().getDeviceCatalogTtl() * 1000L;
+
+	/** The executor loading the catalogs on background. */
+	private static final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "device-catalog");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** The catalogs by api key, since each app has its own one. */
+	private static final Map<String, Catalog> catalogs = new ConcurrentHashMap<>();
+
+	/** The ids of the huawei devices with HMS, read once. */
+	private static volatile Set<String> hmsDevices;
+
+	/**
+	 * Gets the ids of the devices available right now on a region.
+	 *
+	 * @author carlos.cadena
+	 * @param region the region, EU or US
+	 * @return the available devices
+	 */
+	public static List<String> getAvailableDevices(String region) {
+		return getCatalog().available.get().getOrDefault(region, Collections.emptyList());
+	}
+
+	/**
+	 * Gets a device by its id, on any region.
+	 *
+	 * @author carlos.cadena
+	 * @param id the id
+	 * @return the device, null if there is no device with the id
+	 */
+	public static Map<String, String> getDevice(String id) {
+		return getCatalog().devices.get().byId.get(id);
+	}
+
+	/**
+	 * Gets the devices with a name, on any region.
+	 *
+	 * @author carlos.cadena
+	 * @param name the name
+	 * @return the devices
+	 */
+	public static List<Map<String, String>> getDevicesByName(String name) {
+		return getCatalog().devices.get().byName.getOrDefault(name.toLowerCase(), Collections.emptyList());
+	}
+
+	/**
+	 * Gets the devices of a region with an OS.
+	 *
+	 * @author carlos.cadena
+	 * @param region the region, EU or US
+	 * @param os the OS, as the platform name
+	 * @return the devices
+	 */
+	public static List<Map<String, String>> getDevices(String region, String os) {
+		return getCatalog().devices.get().byRegionAndOs.getOrDefault(region + "|" + os.toUpperCase(), Collections.emptyList());
+	}
+
+	/**
+	 * Gets the ids of the huawei devices with HMS, read from hmsDevices.txt the first time.
+	 *
+	 * @author carlos.cadena
+	 * @return the HMS devices
+	 */
+	public static Set<String> getHmsDevices() {
+		Set<String> devices = hmsDevices;
+		if (devices == null) {
+			try (InputStream input = DeviceCatalog.class.getClassLoader().getResourceAsStream("hmsDevices.txt")) {
+				if (input == null) {
+					throw new IllegalArgumentException("file not found! hmsDevices.txt");
+				}
+				String content = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)).lines()
+						.collect(Collectors.joining());
+				devices = Collections.unmodifiableSet(Arrays.stream(content.split(",")).map(String::trim)
+						.filter(device -> !device.isEmpty()).collect(Collectors.toSet()));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			hmsDevices = devices;
+		}
+		return devices;
+	}
+
+	/**
+	 * Gets the catalog of the current app.
+	 *
+	 * @author carlos.cadena
+	 * @return the catalog
+	 */
+	private static Catalog getCatalog() {
+		return catalogs.computeIfAbsent(FrameworkProperties.getTestObjectId(FrameworkProperties.getApp()), Catalog::new);
+	}
+
+	/**
+	 * Requests a resource of the farm api.
+	 *
+	 * @author carlos.cadena
+	 * @param url the url
+	 * @param apiKey the api key
+	 * @return the json
+	 */
+	private static JsonPath request(String url, String apiKey) {
+		return RestAssured.given().baseUri(url).auth().preemptive().basic(USER, apiKey).get().jsonPath();
+	}
+
+	/**
+	 * The Catalog class which holds the devices of an api key.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class Catalog {
+
+		/** The devices. */
+		private final Cached<Devices> devices;
+
+		/** The ids of the available devices by region. */
+		private final Cached<Map<String, List<String>>> available;
+
+		/**
+		 * Instantiates a new catalog.
+		 *
+		 * @author carlos.cadena
+		 * @param apiKey the api key
+		 */
+		private Catalog(String apiKey) {
+			devices = new Cached<>(() -> new Devices(request(DEVICES_URL, apiKey)));
+			available = new Cached<>(() -> {
+				JsonPath json = request(AVAILABLE_DEVICES_URL, apiKey);
+				Map<String, List<String>> byRegion = new HashMap<>();
+				REGIONS.forEach(region -> {
+					List<String> ids = json.getList(region, String.class);
+					byRegion.put(region, ids == null ? Collections.emptyList() : Collections.unmodifiableList(ids));
+				});
+				return byRegion;
+			});
+		}
+	}
+
+	/**
+	 * The Devices class which is the list of devices of the farm with its indexes.
+	 *
+	 * @author carlos.cadena
+	 */
+	private static class Devices {
+
+		/** The devices by id. */
+		private final Map<String, Map<String, String>> byId = new HashMap<>();
+
+		/** The devices by lower case name. */
+		private final Map<String, List<Map<String, String>>> byName = new HashMap<>();
+
+		/** The devices by region and OS. */
+		private final Map<String, List<Map<String, String>>> byRegionAndOs = new HashMap<>();
+
+		/**
+		 * Instantiates the devices from the response of the farm.
+		 *
+		 * @author carlos.cadena
+		 * @param json the json
+		 */
+		private Devices(JsonPath json) {
+			for (String region : REGIONS) {
+				List<Map<String, Object>> regionDevices = json.getList(region);
+				if (regionDevices == null) {
+					continue;
+				}
+				for (Map<String, Object> values : regionDevices) {
+					Map<String, String> device = new LinkedHashMap<>();
+					values.forEach((key, value) -> device.put(key, value == null ? null : String.valueOf(value)));
+					Map<String, String> readOnly = Collections.unmodifiableMap(device);
+					byId.putIfAbsent(readOnly.get("id"), readOnly);
+					if (readOnly.get("name") != null) {
+						byName.computeIfAbsent(readOnly.get("name").toLowerCase(), key -> new ArrayList<>()).add(readOnly);
+					}
+					byRegionAndOs.computeIfAbsent(region + "|" + readOnly.get("os"), key -> new ArrayList<>()).add(readOnly);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The Cached class which is a value loaded from the farm that is loaded again on background once it
+	 * is older than the time to live, the old value is served meanwhile.
+	 *
+	 * @author carlos.cadena
+	 * @param <T> the type of the value
+	 */
+	private static class Cached<T> {
+
+		/** The loader. */
+		private final Supplier<T> loader;
+
+		/** The flag telling if the value is being loaded on background. */
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		/** The value. */
+		private volatile T value;
+
+		/** The time the value was loaded. */
+		private volatile long loadedAt;
+
+		/**
+		 * Instantiates a new cached value.
+		 *
+		 * @author carlos.cadena
+		 * @param loader the loader
+		 */
+		private Cached(Supplier<T> loader) {
+			this.loader = loader;
+		}
+
+		/**
+		 * Gets the value, it is loaded on the calling thread only the first time.
+		 *
+		 * @author carlos.cadena
+		 * @return the value
+		 */
+		private T get() {
+			T current = value;
+			if (current == null) {
+				synchronized (this) {
+					if (value == null) {
+						load();
+					}
+					return value;
+				}
+			}
+			if (System.currentTimeMillis() - loadedAt > TTL && refreshing.compareAndSet(false, true)) {
+				refresher.execute(() -> {
+					try {
+						load();
+					} catch (RuntimeException e) {
+						Log.logger.debug("Device catalog could not be refreshed -> " + e.getMessage());
+					} finally {
+						refreshing.set(false);
+					}
+				});
+			}
+			return current;
+		}
+
+		/**
+		 * Loads the value.
+		 *
+		 * @author carlos.cadena
+		 */
+		private void load() {
+			T loaded = loader.get();
+			loadedAt = System.currentTimeMillis();
+			value = loaded;
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package framework.test;
+
+import framework.report.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ExecutionHistory class which keeps, on a local file, how long each test took on previous runs, so
+ * the suite can be scheduled with the longest tests first. Durations are smoothed so a single slow run
+ * does not move a test to the front for good. It also keeps whether tests are flaky, that is, they passed
+ * after being retried or their result kept changing from one run to the next, looking only at the last
+ * runs so a test that was fixed stops being flaky.
+ *
+ * @author carlos.cadena
+ */
+public class ExecutionHistory {
+
+	/** The history file. */
+	private static final File FILE = new File("execution-history.properties");
+
+	/** The weight of the last run on the duration kept. */
+	private static final double WEIGHT = 0.5;
+
+	/** The suffix of the duration keys. */
+	private static final String DURATION = ".duration";
+
+	/** The suffix of the keys with the results of the last runs, oldest first. */
+	private static final String RECENT_RESULTS = ".recent";
+
+	/** The runs whose result is kept. */
+	private static final int RECENT_RUNS = 10;
+
+	/** The result of a run passed. */
+	private static final char PASSED = 'P';
+
+	/** The result of a run passed after a retry. */
+	private static final char PASSED_ON_RETRY = 'R';
+
+	/** The result of a run failed. */
+	private static final char FAILED = 'F';
+
+	/** The values of the history by key. */
+	private static final Map<String, String> values = load();
+
+	/**
+	 * Gets the duration of a test in milliseconds.
+	 *
+	 * @author carlos.cadena
+	 * @param testName the test name
+	 * @return the duration, or -1 if the test has no history
+	 */
+	public static long getDuration(String testName) {
+		String duration = values.get(testName + DURATION);
+		return duration == null ? -1 : Long.parseLong(duration);
+	}
+
+	/**
+	 * Gets the mean duration of the tests with history, used for the tests without it.
+	 *
+	 * @author carlos.cadena
+	 * @return the mean duration, or 0 if there is no history
+	 */
+	public static long getMeanDuration() {
+		OptionalDouble mean = values.entrySet().stream().filter(entry -> entry.getKey().endsWith(DURATION))
+				.mapToLong(entry -> Long.parseLong(entry.getValue())).average();
+		return (long) mean.orElse(0);
+	}
+
+	/**
+	 * Records the duration of a test run.
+	 *
+	 * @author carlos.cadena
+	 * @param testName the test name
+	 * @param millis the duration in milliseconds
+	 */
+	public static void recordDuration(String testName, long millis) {
+		values.merge(testName + DURATION, String.valueOf(millis),
+				(previous, last) -> String.valueOf(Math.round(WEIGHT * Long.parseLong(last) + (1 - WEIGHT) * Long.parseLong(previous))));
+	}
+
+	/**
+	 * Records the result of a test run, only the last runs are kept.
+	 *
+	 * @author carlos.cadena
+	 * @param testName the test name
+	 * @param passed the passed flag
+	 * @param retried the flag telling if the test was retried on the run
+	 */
+	public static void recordResult(String testName, boolean passed, boolean retried) {
+		char result = !passed ? FAILED : retried ? PASSED_ON_RETRY : PASSED;
+		values.merge(testName + RECENT_RESULTS, String.valueOf(result), (previous, last) -> {
+			String results = previous + last;
+			return results.substring(Math.max(0, results.length() - RECENT_RUNS));
+		});
+	}
+
+	/**
+	 * Checks if the test is flaky, on the last runs it passed after a retry or its result changed more
+	 * than once. A test that started failing on the last run, as a new bug does, is not flaky.
+	 *
+	 * @author carlos.cadena
+	 * @param testName the test name
+	 * @return true, if is flaky
+	 */
+	public static boolean isFlaky(String testName) {
+		String results = values.getOrDefault(testName + RECENT_RESULTS, "");
+		int changes = 0;
+		for (int i = 1; i < results.length(); i++) {
+			if ((results.charAt(i) == FAILED) != (results.charAt(i - 1) == FAILED)) {
+				changes++;
+			}
+		}
+		return results.indexOf(PASSED_ON_RETRY) >= 0 || changes > 1;
+	}
+
+	/**
+	 * Writes the history to its file.
+	 *
+	 * @author carlos.cadena
+	 */
+	public static void save() {
+		Properties properties = new Properties();
+		properties.putAll(values);
+		try (OutputStream output = new FileOutputStream(FILE)) {
+			properties.store(output, "Execution history");
+		} catch (IOException e) {
+			Log.logger.debug("Execution history could not be saved -> " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Loads the history from its file.
+	 *
+	 * @author carlos.cadena
+	 * @return the values
+	 */
+	private static Map<String, String> load() {
+		Map<String, String> history = new ConcurrentHashMap<>();
+		if (FILE.exists()) {
+			Properties properties = new Properties();
+			try (InputStream input = new FileInputStream(FILE)) {
+				properties.load(input);
+				properties.stringPropertyNames().forEach(key -> history.put(key, properties.getProperty(key)));
+			} catch (IOException e) {
+				Log.logger.debug("Execution history could not be loaded -> " + e.getMessage());
+			}
+		}
+		return history;
+	}
+}
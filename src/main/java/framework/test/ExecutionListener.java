@@ -1,19 +1,31 @@
 package framework.test;
 
+import framework.base.FrameworkConfig;
 import framework.base.FrameworkProperties;
-
+import framework.report.Log;
+import org.apache.logging.log4j.LogManager;
 import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
 import org.testng.annotations.ITestAnnotation;
 import org.testng.internal.annotations.IAnnotationTransformer;
 import org.testng.xml.XmlGroups;
 import org.testng.xml.XmlRun;
 import org.testng.xml.XmlSuite;
 import org.testng.xml.XmlSuite.ParallelMode;
+import org.testng.xml.XmlTest;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * The ExecutionListener interface for receiving execution events.
@@ -26,7 +38,7 @@ import java.util.List;
  * @author carlos.cadena
  * 
  */
-public class ExecutionListener implements IAlterSuiteListener, IAnnotationTransformer {
+public class ExecutionListener implements IAlterSuiteListener, IAnnotationTransformer, ITestListener, ISuiteListener {
 
 	/* (non-Javadoc)
 	 * @see org.testng.IAlterSuiteListener#alter(java.util.List)
@@ -35,6 +47,88 @@ public class ExecutionListener implements IAlterSuiteListener, IAnnotationTransf
 	public void alter(List<XmlSuite> suites) {
 		XmlSuite suite = suites.get(0);
 		this.alterParallel(suite);
+		if (FrameworkProperties.getScheduleByDuration().equalsIgnoreCase("true") && this.getThreadCount(suite) > 1) {
+			if (Log.logger == null) {
+				Log.logger = LogManager.getLogger(getClass());
+			}
+			this.scheduleByDuration(suite);
+		}
+	}
+
+	/**
+	 * Gets the number of threads the tests will run on, which is 1 for local runs or non dynamic devices
+	 * as the {@link TestBase} forces it when the suite starts.
+	 *
+	 * @author carlos.cadena
+	 * @param suite the suite
+	 * @return the thread count
+	 */
+	private int getThreadCount(XmlSuite suite) {
+		FrameworkConfig config = FrameworkConfig.get();
+		if (!config.isDynamicDevice() || config.isLocal()) {
+			return 1;
+		}
+		return suite.getThreadCount();
+	}
+
+	/**
+	 * Sorts the tests of the suite longest first, by their duration on previous runs, so the longest
+	 * ones do not start last and keep the other devices idle at the end of the run. Tests without
+	 * history take the mean duration and keep their order.
+	 *
+	 * @author carlos.cadena
+	 * @param suite the suite
+	 */
+	private void scheduleByDuration(XmlSuite suite) {
+		long meanDuration = ExecutionHistory.getMeanDuration();
+		if (meanDuration == 0) {
+			return;
+		}
+		Map<XmlTest, Long> durations = new HashMap<>();
+		suite.getTests().forEach(test -> {
+			long duration = ExecutionHistory.getDuration(test.getName());
+			durations.put(test, duration < 0 ? meanDuration : duration);
+		});
+		List<XmlTest> tests = new ArrayList<>(suite.getTests());
+		tests.sort(Comparator.comparing(durations::get, Comparator.reverseOrder()));
+		suite.setTests(tests);
+		PriorityQueue<Long> workers = new PriorityQueue<>();
+		for (int i = 0; i < suite.getThreadCount(); i++) {
+			workers.add(0L);
+		}
+		tests.forEach(test -> workers.add(workers.poll() + durations.get(test)));
+		long makespan = workers.stream().mapToLong(Long::longValue).max().orElse(0);
+		Log.logger.info(String.format("Tests sorted by duration on %d workers, estimated execution time: %d min %d s",
+				suite.getThreadCount(), makespan / 60000, makespan / 1000 % 60));
+	}
+
+	/**
+	 * Records the result of the test and its duration, from the start of its first method to the end of
+	 * its last one.
+	 *
+	 * @author carlos.cadena
+	 * @param context the context
+	 */
+	@Override
+	public void onFinish(ITestContext context) {
+		if (!context.getPassedTests().getAllResults().isEmpty() || !context.getFailedTests().getAllResults().isEmpty()) {
+			ExecutionHistory.recordResult(context.getName(), context.getFailedTests().getAllResults().isEmpty(),
+					context.getAttribute("onRetry") != null);
+		}
+		if (context.getStartDate() != null && context.getEndDate() != null) {
+			ExecutionHistory.recordDuration(context.getName(), context.getEndDate().getTime() - context.getStartDate().getTime());
+		}
+	}
+
+	/**
+	 * Saves the durations recorded during the suite.
+	 *
+	 * @author carlos.cadena
+	 * @param suite the suite
+	 */
+	@Override
+	public void onFinish(ISuite suite) {
+		ExecutionHistory.save();
 	}
 	
 	/**
@@ -46,8 +140,8 @@ public class ExecutionListener implements IAlterSuiteListener, IAnnotationTransf
 	private void alterParallel(XmlSuite suite)
 	{
 		suite.setParallel(ParallelMode.getValidParallel(FrameworkProperties.props.getProperty("parallel.type")));
-		String maxParallel = FrameworkProperties.getParallel();
-		suite.setThreadCount(Integer.valueOf(suite.getTests().size() < Integer.valueOf(maxParallel) ? String.valueOf(suite.getTests().size()) : maxParallel));
+		int maxParallel = FrameworkConfig.get().getParallel();
+		suite.setThreadCount(Math.min(suite.getTests().size(), maxParallel));
 		if(System.getProperties().containsKey("groups")) {
 		XmlGroups group  = new XmlGroups();
 		XmlRun run = new XmlRun();
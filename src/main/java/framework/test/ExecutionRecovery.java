@@ -7,12 +7,17 @@ import java.io.PrintWriter;
 import org.testng.ITestResult;
 import org.testng.util.RetryAnalyzerCount;
 
-import framework.base.FrameworkProperties;
+import framework.base.FrameworkConfig;
 import framework.report.Log;
+import framework.test.FailureClassifier.FailureType;
 
 // TODO: Auto-generated Javadoc
 /**
- * The ExecutionRecovery class defined to define retry behavior for test execution.
+ * The ExecutionRecovery class defined to define retry behavior for test execution. Failures are classified
+ * through {@link FailureClassifier}: infrastructure failures are always retried, on another session and
+ * device, since they are not caused by the test. Tests setting the retry mode are also retried after app
+ * failures, and after assertion failures only if the test is flaky on {@link ExecutionHistory}, so real
+ * bugs are not run again.
  *
  * @author carlos.cadena
  */
@@ -27,6 +32,9 @@ public class ExecutionRecovery extends RetryAnalyzerCount {
 	/** The exhausted. */
 	private boolean exhausted;
 
+	/** The type of the last failure. */
+	private FailureType failureType;
+
 	
 	/**
 	 * Checks if is exhausted.
@@ -65,6 +73,16 @@ public class ExecutionRecovery extends RetryAnalyzerCount {
 	}
 	
 	
+	/**
+	 * Gets the type of the last failure.
+	 *
+	 * @author carlos.cadena
+	 * @return the failure type, null if the test did not fail
+	 */
+	public FailureType getFailureType() {
+		return failureType;
+	}
+
 	/**
 	 * Gets retry count.
 	 *
@@ -81,7 +99,7 @@ public class ExecutionRecovery extends RetryAnalyzerCount {
 	public ExecutionRecovery() {
 		isRetry = false;
 		exhausted = false;
-        this.setCount(Integer.valueOf(FrameworkProperties.getRetryTimes()).intValue());		
+        this.setCount(FrameworkConfig.get().getRetryTimes());		
 	}
 	
 	/**
@@ -97,14 +115,16 @@ public class ExecutionRecovery extends RetryAnalyzerCount {
 	 */
 	@Override
 	public boolean retryMethod(ITestResult result) {
-		if (isRetry) {
+		failureType = FailureClassifier.classify(result.getThrowable());
+		String testName = result.getTestContext().getName();
+		if (isRetried(failureType, testName)) {
 			PrintWriter writer;
 			try {
 				writer = new PrintWriter(new File("./" + result.getTestContext().getName() + "_log.log"));
 				writer.print("");
 				writer.close();
 				Log.logger.debug("Retry execution for '" + (this.getCount() + 1) + "' time(s) for test '"
-						+ result.getTestContext().getName() + "'");
+						+ testName + "' after " + failureType.name().toLowerCase() + " failure");
 				result.getTestContext().setAttribute("onRetry", true);
 				retryWasCalled = true;
 				isRetry = false;
@@ -115,7 +135,27 @@ public class ExecutionRecovery extends RetryAnalyzerCount {
 				return false;
 			}
 		}
+		Log.logger.debug("Test '" + testName + "' is not retried after " + failureType.name().toLowerCase() + " failure");
 		return false;
 	}
 
+	/**
+	 * Checks if a failure is retried.
+	 *
+	 * @author carlos.cadena
+	 * @param failureType the failure type
+	 * @param testName the test name
+	 * @return true, if the failure is retried
+	 */
+	private boolean isRetried(FailureType failureType, String testName) {
+		switch (failureType) {
+		case INFRASTRUCTURE:
+			return true;
+		case APPLICATION:
+			return isRetry;
+		default:
+			return isRetry && ExecutionHistory.isFlaky(testName);
+		}
+	}
+
 }
@@ -0,0 +1,83 @@
+package framework.test;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The FailureClassifier class which tells whether a test failed because of the infrastructure (the
+ * session could not be created or was lost, the server did not answer...), because of the app or
+ * because an assertion did not hold, so only the failures worth it are retried.
+ *
+ * @author carlos.cadena
+ */
+public class FailureClassifier {
+
+	/**
+	 * The types of failure.
+	 *
+	 * @author carlos.cadena
+	 */
+	public enum FailureType {
+
+		/** The session, the device or the server failed. */
+		INFRASTRUCTURE,
+
+		/** The app did not behave as expected, an element was not found, a wait timed out... */
+		APPLICATION,
+
+		/** An assertion of the test did not hold. */
+		ASSERTION
+	}
+
+	/** The messages of the driver errors caused by the connection with the server. */
+	private static final String[] INFRASTRUCTURE_MESSAGES = {"Read timed out", "Connection refused",
+			"Connection reset", "Could not start a new session", "session is either terminated or not started"};
+
+	/**
+	 * Classifies the failure of a test, looking through the whole chain of causes.
+	 *
+	 * @author carlos.cadena
+	 * @param throwable the throwable
+	 * @return the failure type
+	 */
+	public static FailureType classify(Throwable throwable) {
+		Set<Throwable> visited = new HashSet<>();
+		for (Throwable cause = throwable; cause != null && visited.add(cause); cause = cause.getCause()) {
+			if (isInfrastructure(cause)) {
+				return FailureType.INFRASTRUCTURE;
+			}
+		}
+		return throwable instanceof AssertionError ? FailureType.ASSERTION : FailureType.APPLICATION;
+	}
+
+	/**
+	 * Checks if the throwable comes from the infrastructure.
+	 *
+	 * @author carlos.cadena
+	 * @param throwable the throwable
+	 * @return true, if is infrastructure
+	 */
+	private static boolean isInfrastructure(Throwable throwable) {
+		if (throwable instanceof SessionNotCreatedException || throwable instanceof NoSuchSessionException
+				|| throwable instanceof UnreachableBrowserException || throwable instanceof SocketTimeoutException
+				|| throwable instanceof ConnectException) {
+			return true;
+		}
+		if ((throwable instanceof WebDriverException || throwable instanceof IOException) && throwable.getMessage() != null) {
+			for (String message : INFRASTRUCTURE_MESSAGES) {
+				if (throwable.getMessage().contains(message)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
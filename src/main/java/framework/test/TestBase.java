@@ -2,11 +2,12 @@ package framework.test;
 
 import com.applitools.eyes.selenium.Eyes;
 import com.aventstack.extentreports.ExtentTest;
-import com.aventstack.extentreports.MediaEntityBuilder;
-import com.aventstack.extentreports.MediaEntityModelProvider;
 import com.aventstack.extentreports.Status;
 import framework.base.*;
 import framework.report.Log;
+import framework.report.ScreenshotPipeline;
+import framework.report.Tracer;
+import framework.test.FailureClassifier.FailureType;
 import groovy.lang.Tuple2;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.ios.IOSDriver;
@@ -15,7 +16,9 @@ import io.restassured.http.ContentType;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriverException;
 import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.SkipException;
@@ -30,7 +33,7 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Base64;
+import java.util.Collection;
 
 import static framework.base.AppiumDriverFacade.appiumDriver;
 import static framework.base.AppiumDriverFacade.isAndroidExecution;
@@ -61,9 +64,6 @@ public abstract class TestBase {
 	/** The test name. */
 	private ThreadLocal<String> testName;
 	
-	/** The screenshot. */
-	private final ThreadLocal<MediaEntityModelProvider> screenshot = new ThreadLocal<>();
-
 	/** The screenshot size. */
 	private final ThreadLocal<Integer> screenshotSize = new ThreadLocal<>();
 
@@ -119,8 +119,9 @@ public abstract class TestBase {
 		if (!Files.exists(screenshotsPath)) {
 			Files.createDirectory(screenshotsPath);
 		}
-		if (!FrameworkProperties.getDeviceName().equalsIgnoreCase("Dynamic")
-				|| FrameworkProperties.getLocal().equalsIgnoreCase("True")) {
+		DriverSessionPool.expectTests(context.getSuite().getAllMethods().size());
+		FrameworkConfig config = FrameworkConfig.get();
+		if (!config.isDynamicDevice() || config.isLocal()) {
 			context.getSuite().getXmlSuite().setThreadCount(1);
 			System.setProperty("threadCount", "1");
 		}
@@ -149,6 +150,8 @@ public abstract class TestBase {
 				context.getCurrentXmlTest().getName();
 			}
 			Log.testStart(context.getName());
+			Tracer.startTest(getClass().getSimpleName(), context.getName());
+			CommandMetrics.startTest();
 			if (Arrays.asList(method.getAnnotation(Test.class).groups()).contains("SMS")) {
 				System.setProperty("APP", "SMS");
 			}
@@ -161,11 +164,11 @@ public abstract class TestBase {
 			}
 			else {
 				String isMobile = context.getCurrentXmlTest().getParameter("mobile");
-				boolean isHybrid = FrameworkProperties.getWeb().equalsIgnoreCase("True") && isMobile != null && isMobile.equalsIgnoreCase("True");
-				if (FrameworkProperties.getWeb().equalsIgnoreCase("True") && !isHybrid) {
+				boolean isHybrid = FrameworkConfig.get().isWeb() && isMobile != null && isMobile.equalsIgnoreCase("True");
+				if (FrameworkConfig.get().isWeb() && !isHybrid) {
 					WebDriverFacade.createDriver();
-				} else if (context.getAttribute("onRetry") != null || firstRun || FrameworkProperties.getDeviceName().equalsIgnoreCase("Dynamic")
-						|| this.getThreadCount(context) != 1) {
+				} else if (context.getAttribute("onRetry") != null || firstRun || FrameworkConfig.get().isDynamicDevice()
+						|| this.getThreadCount(context) != 1 || DriverSessionPool.isEnabled()) {
 					AppiumDriverFacade.createDriver(isHybrid, testName.get(),
 							FrameworkProperties.getDeviceName(), FrameworkProperties.getPlatformVersion());
 				} else {
@@ -181,7 +184,7 @@ public abstract class TestBase {
 				}
 			}
 			firstRun = false;
-			if (FrameworkProperties.getLocal().equalsIgnoreCase("False")) {
+			if (!FrameworkConfig.get().isLocal()) {
 				URL sauceURL = URI.create(appiumDriver.get().getCapabilities().getCapability("testobject_test_report_url").toString()).toURL();
 				deviceAndPlatform.set(TestUtils.getDevicePlatformNameAndVersion());
 				getReport().getModel().setName(context.getName() + "<br>" + "<b>Device:</b> '" +
@@ -228,16 +231,10 @@ public abstract class TestBase {
 			Log.testFail(context.getName());
 		try {
 			String imageTitle = "screenshot_" + RandomStringUtils.randomAlphabetic(15);	
-			String imagePath = screenshots + imageTitle + ".png";
-			WebDriverUtils.takeScreenshot(AppiumDriverFacade.getDriver() == null ? WebDriverFacade.getDriver() : AppiumDriverFacade.getDriver(),imagePath);
-			byte[] bytes = Files.readAllBytes(new File(imagePath).toPath());
-			screenshotSize.set(bytes.length);
-			screenshot.set(MediaEntityBuilder
-					.createScreenCaptureFromBase64String(
-							new String(Base64.getEncoder().encode(bytes)))
-					.build());
-			getReport().log(Status.FAIL, result.getThrowable().getMessage(), screenshot.get());
-		} catch (RuntimeException | IOException e) {
+			String imagePath = FrameworkConfig.get().isScreenshotSave() ? screenshots + imageTitle + ".png" : null;
+			screenshotSize.set(ScreenshotPipeline.capture(AppiumDriverFacade.getDriver() == null ? WebDriverFacade.getDriver() : AppiumDriverFacade.getDriver(),
+					getReport(), Status.FAIL, result.getThrowable().getMessage(), imagePath));
+		} catch (RuntimeException e) {
 			e.printStackTrace();
 			getReport().log(Status.FAIL, result.getThrowable().getMessage());
 			getReport().info("There was an error capturing screenshot > " + e.getMessage());
@@ -255,13 +252,10 @@ public abstract class TestBase {
 	public void logAndTakeScreenshotForTest(String screenshotTitle) {
 		try {
 			String imageTitle =  RandomStringUtils.randomAlphabetic(10);
-			String imagePath = screenshots + imageTitle + ".png";
-			WebDriverUtils.takeScreenshot(AppiumDriverFacade.getDriver() == null ? WebDriverFacade.getDriver() : AppiumDriverFacade.getDriver(),imagePath);
-			getReport().log(Status.INFO, screenshotTitle, MediaEntityBuilder
-					.createScreenCaptureFromBase64String(
-							new String(Base64.getEncoder().encode(Files.readAllBytes(new File(imagePath).toPath()))))
-					.build());
-		} catch (RuntimeException | IOException e) {
+			String imagePath = FrameworkConfig.get().isScreenshotSave() ? screenshots + imageTitle + ".png" : null;
+			ScreenshotPipeline.capture(AppiumDriverFacade.getDriver() == null ? WebDriverFacade.getDriver() : AppiumDriverFacade.getDriver(),
+					getReport(), Status.INFO, screenshotTitle, imagePath);
+		} catch (RuntimeException e) {
 			getReport().info("There was an error capturing screenshot > " + e.getMessage());
 		}
 
@@ -282,6 +276,26 @@ public abstract class TestBase {
 		}
 	}
 
+	/**
+	 * Annotates the result of the test on the command log of a Sauce Labs session shared through the
+	 * session pool, the result of the session itself is not set since it runs several tests.
+	 *
+	 * @author carlos.cadena
+	 * @param result the result
+	 * @param context the context
+	 */
+	private void annotateResultOnSauce(ITestResult result, ITestContext context) {
+		if (FrameworkConfig.get().isLocal() || result.getStatus() == ITestResult.CREATED || result.getStatus() == ITestResult.STARTED) {
+			return;
+		}
+		String status = result.getStatus() == ITestResult.SKIP ? "SKIPPED" : result.isSuccess() ? "PASSED" : "FAILED";
+		try {
+			((JavascriptExecutor) appiumDriver.get()).executeScript("sauce:context=" + context.getName() + " -> " + status);
+		} catch (WebDriverException e) {
+			Log.logger.debug("Result of test '" + context.getName() + "' could not be annotated on Sauce Labs -> " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Closing operations when test execution ends.
 	 *
@@ -290,25 +304,38 @@ public abstract class TestBase {
 	 * @param context the context
 	 */
 	private void closeTest(ITestResult result, ITestContext context) {
+		if (result.getStatus() == ITestResult.FAILURE
+				&& FailureClassifier.classify(result.getThrowable()) == FailureType.INFRASTRUCTURE) {
+			DeviceAllocator.avoid(FrameworkConfig.get().isWeb() ? WebDriverFacade.getDriver() : appiumDriver.get());
+		}
 		try {
-			if(FrameworkProperties.getWeb().equalsIgnoreCase("true")) {
+			if(FrameworkConfig.get().isWeb()) {
 				WebDriverFacade.shutdown();
 			}
-			if (FrameworkProperties.getLocal().equalsIgnoreCase("true")
-					|| (!FrameworkProperties.getDeviceName().equalsIgnoreCase("Dynamic")
+			if (DriverSessionPool.isEnabled() && appiumDriver.get() != null) {
+				annotateResultOnSauce(result, context);
+				if (result.getStatus() == ITestResult.FAILURE
+						&& FailureClassifier.classify(result.getThrowable()) == FailureType.INFRASTRUCTURE) {
+					AppiumDriverFacade.retireDriver();
+				} else {
+					AppiumDriverFacade.releaseDriver();
+				}
+			} else if (FrameworkConfig.get().isLocal()
+					|| (!FrameworkConfig.get().isDynamicDevice()
 							&& this.getThreadCount(context) == 1)) {
 				if (context.getSuite().getAllMethods().size() == testCount) {
 					logResultSauceLabs(result);
-					appiumDriver.get().quit();
+					DriverSessionPool.retire(appiumDriver.get());
 				} else {
                     appiumDriver.get().close();
 				}
 			} else {
 				logResultSauceLabs(result);
                 appiumDriver.get().close();
-				appiumDriver.get().quit();
+				DriverSessionPool.retire(appiumDriver.get());
 			}
 		} catch (NullPointerException | NoSuchSessionException e) {
+			DeviceAllocator.release(appiumDriver.get());
 			Log.logger.debug("Session is not up and running, so there is no need to close it for test '"
 					+ context.getName() + "'");
 		}
@@ -342,12 +369,19 @@ public abstract class TestBase {
 				//here you can log test result FAILURE on jira or whatever tool you use for saving test results
 				break;
 			}
+			Collection<String> slowestCommands = CommandMetrics.getSlowestForTest(3);
+			if (!slowestCommands.isEmpty()) {
+				Log.logger.info("Comandos mas lentos: " + String.join(" | ", slowestCommands));
+				getReport().info("Comandos mas lentos:<br>" + String.join("<br>", slowestCommands));
+			}
 			Log.testEnd(context.getName());
 			closeTest(result, context);
 			testCount++;
 		} catch (RuntimeException e) {
 			e.printStackTrace();
 			getReport().info("There was an error closing session");
+		} finally {
+			Tracer.endTest();
 		}
 	}
 
@@ -359,7 +393,7 @@ public abstract class TestBase {
 	 */
 	private void logTestSkippedOnSauce() {
 		Log.logger.debug("Skipping test on Sauce Labs");
-		if (!FrameworkProperties.getLocal().equalsIgnoreCase("true") && appiumDriver.get() != null) {
+		if (!FrameworkConfig.get().isLocal() && appiumDriver.get() != null) {
 			RestAssured.baseURI = "https://app.testobject.com/api/rest/v2/appium/session/"
 					+ appiumDriver.get().getSessionId() + "/skiptest";
 			RestAssured.put();
@@ -396,7 +430,7 @@ public abstract class TestBase {
 	 * @return the thread count
 	 */
 	private int getThreadCount(ITestContext context) {
-		if (FrameworkProperties.getLocal().equalsIgnoreCase("true")) {
+		if (FrameworkConfig.get().isLocal()) {
 			return context.getSuite().getXmlSuite().getThreadCount();
 		}
 		return Integer.parseInt(System.getProperty("threadCount"));
@@ -423,6 +457,8 @@ public abstract class TestBase {
 			getReport().debug(
 					"There was an unexpected error trying to delete files on 'screenshots' folder, files will be deleted on next run");
 		}
+		DriverSessionPool.shutdown();
+		DeviceAllocator.releaseAll();
 		if (eyes.getIsOpen()) eyes.close(false);
 	}
 }
@@ -1,14 +1,11 @@
 package framework.test;
 
 import framework.base.FrameworkProperties;
+import framework.base.SessionMetadata;
 import groovy.lang.Tuple2;
-import io.restassured.RestAssured;
-import io.restassured.response.Response;
-import org.testng.SkipException;
 
 import java.io.*;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
@@ -59,28 +56,10 @@ public class TestUtils {
 		bufferedreader.close();
 		return text.toString();
 	}
-	
-	  /**
-  	 * Gets the file from resource.
-  	 *
-  	 * @param fileName the file name
-  	 * @return the file from resource
-  	 * @throws URISyntaxException the URI syntax exception
-  	 */
-  	private static File getFileFromResource(String fileName) throws URISyntaxException{
-	        ClassLoader classLoader = TestUtils.class.getClassLoader();
-	        URL resource = classLoader.getResource(fileName);
-	        if (resource == null) {
-	            throw new IllegalArgumentException("file not found! " + fileName);
-	        } else {
-	            return new File(resource.toURI());
-	        }
-	  }
-	
-
 
 	/**
-	 * Ge available android device from sauce labs.
+	 * Ge available android device from sauce labs, the device is leased through {@link DeviceAllocator}
+	 * until the session created on it is quit.
 	 *
 	 * @param huawei the huawei
 	 * @param hms the hms
@@ -89,26 +68,10 @@ public class TestUtils {
 	 * @throws URISyntaxException the URI syntax exception
 	 */
 	public static String geAvailableAndroidDeviceFromSauceLabs(boolean huawei, boolean hms) throws IOException, URISyntaxException {
-		Random rand = new Random();
-		List<String> huaweiHmsDevices = Arrays
-				.asList(TestUtils.readFile(getFileFromResource("hmsDevices.txt"), false).split(","));
 		if (FrameworkProperties.getLocal().equalsIgnoreCase("true")) {
 			return FrameworkProperties.getDeviceName();
 		} else {
-			RestAssured.baseURI = "https://app.testobject.com/api/rest/v2/devices/available";
-			Response response = RestAssured.given().auth().preemptive()
-					.basic("guillermomartin", FrameworkProperties.getTestObjectId(FrameworkProperties.getApp())).get();
-			List<String> devices = response.getBody().jsonPath().getList("EU");
-			devices = devices.stream().filter(x -> !(x.contains("iPhone") || x.contains("iPad")) && (FrameworkProperties.getPhoneOnly().equalsIgnoreCase("True") ? !x.contains("Tab") && !x.contains("MediaPad") && !x.contains("Google Pixel C") : true)
-					&& (huawei ? x.contains("Huawei") ||  x.contains("HUAWEI") : true)
-					&& (hms ? huaweiHmsDevices.contains(x) : !huaweiHmsDevices.contains(x)))
-					.collect(Collectors.toList());
-			if(!devices.isEmpty()) {
-			return devices.get(rand.nextInt(devices.size()));
-			}
-			else {
-			throw new SkipException("No devices were found, skipping test....");
-			}
+			return DeviceAllocator.lease(huawei, hms);
 		}
 	}
 	
@@ -120,20 +83,14 @@ public class TestUtils {
 	 *         version on second value
 	 */
 	public static Tuple2<String, String> getDevicePlatformNameAndVersion() {
-		String deviceNameSearch, device;
-		Map<String, Object> mapSession = appiumDriver.get().getSessionDetails();
-		String platformAndVersion = mapSession.get("platformName") + " " + mapSession.get("platformVersion").toString();
+		String device;
+		String platformAndVersion = SessionMetadata.of(appiumDriver.get()).getPlatformAndVersion();
 		if (FrameworkProperties.getLocal().equalsIgnoreCase("true")) {
 			device = FrameworkProperties.getDeviceName();
 		} else {
-			RestAssured.baseURI = "https://app.testobject.com/api/rest/v2/devices";
-			Response response = RestAssured.given().auth().preemptive()
-					.basic("xxxxxxx", FrameworkProperties.getTestObjectId(FrameworkProperties.getApp())).get();
-			deviceNameSearch = appiumDriver.get().getCapabilities().asMap().get("testobject_device").toString();
-			device = response.getBody().jsonPath().getString((deviceNameSearch.contains("_us") ? "US":"EU") +".find { it.id == '" + deviceNameSearch + "' }.name");
-			if(device == null) {
-				device = response.getBody().jsonPath().getString("US.find { it.id == '" + deviceNameSearch + "' }.name");
-			}
+			String deviceId = appiumDriver.get().getCapabilities().asMap().get("testobject_device").toString();
+			Map<String, String> catalogDevice = DeviceCatalog.getDevice(deviceId);
+			device = catalogDevice == null || catalogDevice.get("name") == null ? deviceId : catalogDevice.get("name");
             device = device.replace("HUAWEI", "Huawei").replace("bq", "BQ");
 		}
 		return new Tuple2<>(device, platformAndVersion);